@@ -0,0 +1,72 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.service.EventConflictService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventConflictService#hasConflict(EventDto)} against tables of different sizes
+ * and densities, answered from the in-memory index or from the range query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflictCheckBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    private int tableSize;
+
+    /** Fraction of every hour that is booked. */
+    @Param({"0.1", "0.5", "0.9"})
+    private double density;
+
+    @Param({"index", "database"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private EventConflictService eventConflictService;
+    private EventDto[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(Map.of(
+                "event-scheduler.conflict-index.enabled", String.valueOf(source.equals("index"))));
+        BenchmarkContexts.seed(context, tableSize, density);
+        eventConflictService = context.getBean(EventConflictService.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new EventDto[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            LocalDateTime start = BenchmarkContexts.FIRST_SLOT.plusMinutes(random.nextLong(tableSize * 60L));
+            probes[i] = EventDto.builder()
+                    .name("Probe " + i)
+                    .startTime(start)
+                    .endTime(start.plusMinutes(15))
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean hasConflict() {
+        EventDto probe = probes[next];
+        next = (next + 1) % PROBES;
+        return eventConflictService.hasConflict(probe);
+    }
+}
@@ -0,0 +1,55 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.service.EventService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full {@link EventService#createEvent(EventDto)} against embedded H2: validation,
+ * admission locks, the conflict check and the insert. Every call books a free slot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateEventBenchmark {
+
+    @Param({"10000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(Map.of());
+        BenchmarkContexts.seed(context, tableSize, 0.5);
+        eventService = context.getBean(EventService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public EventDto createEvent() {
+        // Book consecutive half-hour slots after the seeded range so that no call conflicts
+        LocalDateTime start = BenchmarkContexts.FIRST_SLOT.plusHours(tableSize).plusMinutes(nextSlot.getAndIncrement() * 30);
+        return eventService.createEvent(EventDto.builder()
+                .name("Benchmark")
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .build());
+    }
+}
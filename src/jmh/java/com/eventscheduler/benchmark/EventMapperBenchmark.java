@@ -0,0 +1,37 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.Event;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventMapper#toEventDtoList(List)} on large result sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventMapperBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private final EventMapper eventMapper = new EventMapper();
+    private List<Event> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = BenchmarkContexts.events(size);
+    }
+
+    @Benchmark
+    public List<EventDto> toEventDtoList() {
+        return eventMapper.toEventDtoList(events);
+    }
+}
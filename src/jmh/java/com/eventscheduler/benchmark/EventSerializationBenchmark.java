@@ -0,0 +1,59 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.config.ObjectMapperConfig;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@code List<EventDto>} as JSON, with each {@code LocalDateTime}
+ * written as an ISO-8601 string, and as CBOR with epoch millisecond times. Payload sizes
+ * are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborObjectMapper;
+    private List<EventDto> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        cborObjectMapper = ObjectMapperConfig.cborObjectMapper();
+        events = new EventMapper().toEventDtoList(BenchmarkContexts.events(size));
+        try {
+            System.out.printf("%d events: JSON %d bytes, CBOR %d bytes%n", size,
+                    writeJson().length, writeCbor().length);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public byte[] writeCbor() throws JsonProcessingException {
+        return cborObjectMapper.writeValueAsBytes(events);
+    }
+}
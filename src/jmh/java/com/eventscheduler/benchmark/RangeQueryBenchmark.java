@@ -0,0 +1,77 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.service.EventQueryService;
+import com.eventscheduler.service.EventTimeline;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time range queries returning every row of the table, through managed entities mapped to
+ * DTOs, through the DTO projection and from the in-memory timeline. Run with {@code -prof gc}
+ * (the default in the benchmark profile) to compare the bytes allocated per query; the heap
+ * held by the timeline per stored event is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RangeQueryBenchmark {
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EventQueryService eventQueryService;
+    private EventMapper eventMapper;
+    private EventTimeline eventTimeline;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(Map.of("event-scheduler.timeline.enabled", "true"));
+        // One-minute events, one per hour
+        BenchmarkContexts.seed(context, tableSize, 1.0 / 60);
+        eventQueryService = context.getBean(EventQueryService.class);
+        eventMapper = context.getBean(EventMapper.class);
+        eventTimeline = context.getBean(EventTimeline.class);
+        // Without a loaded timeline the timeline benchmark would only measure a failed lookup
+        if (!eventTimeline.isReady() || eventTimeline.size() != tableSize) {
+            throw new IllegalStateException("Timeline holds " + eventTimeline.size() + " of " + tableSize
+                    + " seeded events");
+        }
+        System.out.printf("Timeline: %d events, %.1f bytes per event%n", eventTimeline.size(),
+                (double) eventTimeline.footprintBytes() / eventTimeline.size());
+        from = BenchmarkContexts.FIRST_SLOT;
+        to = BenchmarkContexts.FIRST_SLOT.plusHours(tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EventDto> entities() {
+        return eventMapper.toEventDtoList(eventQueryService.findEventsInRange(from, to));
+    }
+
+    @Benchmark
+    public List<EventDto> projection() {
+        return eventQueryService.findEventDtosInRange(null, from, to);
+    }
+
+    @Benchmark
+    public List<EventDto> timeline() {
+        return eventTimeline.findInRange(null, from, to).orElseThrow();
+    }
+}
@@ -1,9 +1,23 @@
 package com.eventscheduler.config;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 @Configuration
 public class ObjectMapperConfig {
@@ -11,4 +25,27 @@ public class ObjectMapperConfig {
     public Jackson2ObjectMapperBuilderCustomizer customObjectMapper() {
         return builder -> builder.modules(new JavaTimeModule());
     }
+
+    /**
+     * Mapper for {@code application/cbor} responses. Times are written as UTC epoch
+     * milliseconds instead of ISO-8601 strings, which is both smaller and cheaper to encode.
+     */
+    public static ObjectMapper cborObjectMapper() {
+        SimpleModule epochMillis = new SimpleModule("EpochMillis")
+                .addSerializer(LocalDateTime.class, new JsonSerializer<LocalDateTime>() {
+                    @Override
+                    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                            throws IOException {
+                        generator.writeNumber(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+                    }
+                })
+                .addDeserializer(LocalDateTime.class, new JsonDeserializer<LocalDateTime>() {
+                    @Override
+                    public LocalDateTime deserialize(JsonParser parser, DeserializationContext context)
+                            throws IOException {
+                        return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneOffset.UTC);
+                    }
+                });
+        return Jackson2ObjectMapperBuilder.cbor().modules(epochMillis).build();
+    }
 }
@@ -1,62 +1,381 @@
 package com.eventscheduler.controller;
 
+import com.eventscheduler.dto.EventBatchResultDto;
 import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.EventImportReportDto;
+import com.eventscheduler.dto.EventPageDto;
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.dto.TimeSlotDto;
+import com.eventscheduler.dto.VersionedEventDto;
+import com.eventscheduler.exception.BadRequestException;
 import com.eventscheduler.exception.EventNotFoundException;
+import com.eventscheduler.model.EventImportFormat;
+import com.eventscheduler.service.EventChangeFeed;
+import com.eventscheduler.service.EventImportService;
 import com.eventscheduler.service.EventService;
+import com.eventscheduler.service.EventVersions;
+import com.eventscheduler.service.EventWritePipeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/events")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EventController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String CREATED_EVENT_NAME = "event-created";
+
     private final EventService eventService;
+    private final EventChangeFeed eventChangeFeed;
+    private final EventImportService eventImportService;
+    private final EventVersions eventVersions;
+    private final EventWritePipeline eventWritePipeline;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchSize;
+    private final int maxPageSize;
+    private final long streamTimeoutMillis;
 
     @Autowired
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService,
+                           EventChangeFeed eventChangeFeed,
+                           EventImportService eventImportService,
+                           EventVersions eventVersions,
+                           EventWritePipeline eventWritePipeline,
+                           ObjectMapper objectMapper,
+                           @Value("${event-scheduler.batch.max-size:10000}") int maxBatchSize,
+                           @Value("${event-scheduler.pagination.max-limit:1000}") int maxPageSize,
+                           @Value("${event-scheduler.stream.timeout-ms:1800000}") long streamTimeoutMillis) {
         this.eventService = eventService;
+        this.eventChangeFeed = eventChangeFeed;
+        this.eventImportService = eventImportService;
+        this.eventVersions = eventVersions;
+        this.eventWritePipeline = eventWritePipeline;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPageSize = maxPageSize;
+        this.streamTimeoutMillis = streamTimeoutMillis;
     }
 
     /**
-     * Get all events or filter by time range
+     * Get all events or filter by time range, optionally of one resource. Passing limit or after
+     * returns one page of events ordered by start time, with the cursor for the next page in the
+     * X-Next-Cursor header.
+     * <p>
+     * Responses carry an ETag and Last-Modified from the version of the table, or of the resource
+     * when one is given. A conditional request whose version has not changed gets 304 without
+     * the events being read.
      *
      * @return list of events
      */
     @GetMapping
     public ResponseEntity<List<EventDto>> getEvents(
             @RequestParam(value = "startTime", required = false) LocalDateTime startTime,
-            @RequestParam(value = "endTime", required = false) LocalDateTime endTime) {
+            @RequestParam(value = "endTime", required = false) LocalDateTime endTime,
+            @RequestParam(value = "resourceId", required = false) String resourceId,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) String after,
+            WebRequest webRequest) {
+
+        if (limit == null && after == null) {
+            validateRange(startTime, endTime, resourceId);
+            if (isNotModified(webRequest, resourceId)) {
+                return null;
+            }
+            return ResponseEntity.ok((eventService.getEvents(resourceId, startTime, endTime))
+            );
+        }
+        int pageSize = pageSize(startTime, endTime, resourceId, limit);
+        if (isNotModified(webRequest, null)) {
+            return null;
+        }
+
+        EventPageDto page = eventService.getEventsPage(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getEvents());
+    }
+
+    /**
+     * Stream events as newline-delimited JSON, one event per line, taking the same filters as
+     * the JSON listing. Without filters all events are written in start time order as they are
+     * read, so memory use stays flat however many events there are. A time range streams the
+     * events of that range the same way, and limit or after streams one page with the cursor for the next
+     * page in the X-Next-Cursor header.
+     *
+     * @return stream of events
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents(
+            @RequestParam(value = "startTime", required = false) LocalDateTime startTime,
+            @RequestParam(value = "endTime", required = false) LocalDateTime endTime,
+            @RequestParam(value = "resourceId", required = false) String resourceId,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) String after) {
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE));
+        if (limit == null && after == null) {
+            validateRange(startTime, endTime, resourceId);
+            if (startTime == null || endTime == null) {
+                return response.body(ndjson(eventService::streamAllEvents));
+            }
+            return response.body(ndjson(consumer ->
+                    eventService.streamEvents(resourceId, startTime, endTime, consumer)));
+        }
+        EventPageDto page = eventService.getEventsPage(after, pageSize(startTime, endTime, resourceId, limit));
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(ndjson(page.getEvents()::forEach));
+    }
+
+    /**
+     * Subscribe to events as they are created, optionally only those overlapping a time range.
+     * Events after the id in the Last-Event-ID header or lastEventId parameter are sent first.
+     * Delivery is at most once and only covers events created through this instance, see
+     * {@link EventChangeFeed}.
+     *
+     * @return Server-Sent Events stream of created events
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCreatedEvents(
+            @RequestParam(value = "startTime", required = false) LocalDateTime startTime,
+            @RequestParam(value = "endTime", required = false) LocalDateTime endTime,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+
+        if (startTime != null && endTime != null && startTime.isAfter(endTime)) {
+            throw new BadRequestException("Start time must be before end time.");
+        }
+        Long resumeAfter = lastEventId;
+        if (resumeAfter == null && lastEventIdHeader != null) {
+            try {
+                resumeAfter = Long.valueOf(lastEventIdHeader.trim());
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Last-Event-ID must be an event id.");
+            }
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        EventChangeFeed.Subscription subscription = eventChangeFeed.subscribe(startTime, endTime, resumeAfter,
+                new EventChangeFeed.Sink() {
+                    @Override
+                    public void send(EventDto event) throws IOException {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getId()))
+                                .name(CREATED_EVENT_NAME)
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void close() {
+                        emitter.complete();
+                    }
+                });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Find the free intervals of a resource between from and to that last at least minDuration,
+     * earliest first, stopping after limit slots. Without resourceId the default resource is used.
+     *
+     * @return list of free time slots
+     */
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<TimeSlotDto>> getFreeSlots(
+            @RequestParam("from") LocalDateTime from,
+            @RequestParam("to") LocalDateTime to,
+            @RequestParam(value = "resourceId", required = false) String resourceId,
+            @RequestParam(value = "minDuration", required = false) String minDuration,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        int slotLimit = limit != null ? limit : maxPageSize;
+        if (slotLimit < 1 || slotLimit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize + ".");
+        }
+        return ResponseEntity.ok(eventService.findFreeSlots(resourceId, from, to, parseMinDuration(minDuration),
+                slotLimit));
+    }
+
+    /**
+     * Get the number of events and the booked minutes per hour or day between from and to, of
+     * one resource or of all resources, every bucket included. Served from precomputed rollups,
+     * so the cost depends on the number of buckets rather than of events.
+     *
+     * @return list of buckets in time order
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<OccupancyBucketDto>> getOccupancy(
+            @RequestParam("from") LocalDateTime from,
+            @RequestParam("to") LocalDateTime to,
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(value = "resourceId", required = false) String resourceId) {
 
-        return ResponseEntity.ok((eventService.getEvents(startTime, endTime))
-        );
+        return ResponseEntity.ok(eventService.getOccupancy(resourceId, from, to, granularity));
     }
 
     /**
-     * Get a specific event by ID
+     * Get a specific event by ID. The ETag and Last-Modified come from the event's id and
+     * update time; a conditional request for an unchanged cached event gets 304 without a
+     * database read.
      *
      * @param id of the event to fetch
      * @return one event by id
      */
     @GetMapping("/{id}")
-    public ResponseEntity<EventDto> getEventById(@PathVariable Long id) {
-        return eventService.getEventById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<EventDto> getEventById(@PathVariable Long id, WebRequest webRequest) {
+        VersionedEventDto versionedEvent = eventService.getVersionedEventById(id)
                 .orElseThrow(() -> new EventNotFoundException("Event not found with ID: " + id));
+        long lastModified = versionedEvent.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (webRequest.checkNotModified("\"" + id + "-" + lastModified + "\"", lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok(versionedEvent.getEvent());
     }
 
     /**
-     * Create a new event
+     * Create a new event. With the write pipeline enabled, it is committed together with the
+     * events queued alongside it, and the response is sent once it has been.
      *
      * @param event to create
      * @return created event
      */
     @PostMapping
     public ResponseEntity<EventDto> createEvent(@RequestBody @Validated EventDto event) {
+        if (eventWritePipeline.isEnabled()) {
+            return ResponseEntity.ok(eventWritePipeline.createEvent(event));
+        }
         return ResponseEntity.ok(eventService.createEvent(event));
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a batch of events, accepting every item that is valid and conflict free
+     *
+     * @param events to create
+     * @return one result per item, in request order
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<EventBatchResultDto>> createEvents(@RequestBody List<EventDto> events) {
+        if (events.size() > maxBatchSize) {
+            throw new BadRequestException("A batch may contain at most " + maxBatchSize + " events.");
+        }
+        return ResponseEntity.ok(eventService.createEvents(events));
+    }
+
+    /**
+     * Import events from a CSV or NDJSON file, streamed and committed in chunks. Lines that are
+     * invalid or conflict are reported and skipped. Pass the importId of an import that stopped
+     * early, with the same file, to resume it after its last committed chunk.
+     *
+     * @param input file contents
+     * @return counts for the whole import and the lines rejected by this request
+     */
+    @PostMapping(path = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<EventImportReportDto> importEvents(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(value = "importId", required = false) String importId,
+            InputStream input) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        EventImportFormat format = mediaType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? EventImportFormat.CSV
+                : EventImportFormat.NDJSON;
+        return ResponseEntity.ok(eventImportService.importEvents(importId, format, input));
+    }
+
+    /**
+     * Get the progress of an import as of its last committed chunk
+     *
+     * @param importId of the import
+     * @return counts for the import so far
+     */
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<EventImportReportDto> getImport(@PathVariable String importId) {
+        return ResponseEntity.ok(eventImportService.getImport(importId));
+    }
+
+    /**
+     * Compares the request's validators with the current version, setting ETag and
+     * Last-Modified on the response. The version is read before the query, so a response
+     * can only be labelled older than its contents, never newer.
+     */
+    private boolean isNotModified(WebRequest webRequest, String resourceId) {
+        EventVersions.Version version = eventVersions.current(resourceId);
+        return webRequest.checkNotModified(version.etag(), version.lastModified().toEpochMilli());
+    }
+
+    private void validateRange(LocalDateTime startTime, LocalDateTime endTime, String resourceId) {
+        if (resourceId != null && (startTime == null || endTime == null)) {
+            throw new BadRequestException("A resource filter requires a time range.");
+        }
+        if (startTime != null && endTime != null && !startTime.isBefore(endTime)) {
+            throw new BadRequestException("Start time must be before end time.");
+        }
+    }
+
+    private int pageSize(LocalDateTime startTime, LocalDateTime endTime, String resourceId, Integer limit) {
+        if (startTime != null || endTime != null || resourceId != null) {
+            throw new BadRequestException("Pagination cannot be combined with a time range.");
+        }
+        int pageSize = limit != null ? limit : maxPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize + ".");
+        }
+        return pageSize;
+    }
+
+    /**
+     * Writes each event the source hands over as one line of JSON.
+     */
+    private StreamingResponseBody ndjson(Consumer<Consumer<EventDto>> source) {
+        return outputStream -> source.accept(event -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(event));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Duration parseMinDuration(String minDuration) {
+        if (minDuration == null) {
+            return Duration.ZERO;
+        }
+        try {
+            Duration duration = Duration.parse(minDuration);
+            if (!duration.isNegative()) {
+                return duration;
+            }
+        } catch (DateTimeParseException e) {
+            // Reported below
+        }
+        throw new BadRequestException("minDuration must be an ISO-8601 duration such as PT30M.");
+    }
+}
@@ -0,0 +1,15 @@
+package com.eventscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConflictingEventDto {
+    private Long id;
+    private String name;
+}
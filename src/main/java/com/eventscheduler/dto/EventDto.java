@@ -1,5 +1,6 @@
 package com.eventscheduler.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -19,9 +20,23 @@ public class EventDto {
     @NotBlank(message = "Event name must not be blank")
     @Size(min = 1, max = 255, message = "Event name must be between 1 and 255 characters")
     private String name;
+    // Defaults to the "default" resource when not given
+    @Size(min = 1, max = 64, message = "Resource id must be between 1 and 64 characters")
+    private String resourceId;
     @NotNull(message = "Start time must not be null")
     private LocalDateTime startTime;
     @NotNull(message = "End time must not be null")
     private LocalDateTime endTime;
+    // Set for recurring events; start and end time are then those of the first occurrence,
+    // or of the occurrence itself in time range results
+    @Valid
+    private RecurrenceDto recurrence;
+
+    /**
+     * Single event, for JPQL constructor expressions that read rows straight into DTOs.
+     */
+    public EventDto(Long id, String name, String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        this(id, name, resourceId, startTime, endTime, null);
+    }
 }
 
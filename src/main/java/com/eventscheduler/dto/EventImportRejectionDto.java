@@ -0,0 +1,17 @@
+package com.eventscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventImportRejectionDto {
+    // Line of the file, starting at 1; the CSV header is line 1
+    private long line;
+    private EventBatchResultDto.Status status;
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.eventscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventImportReportDto {
+    private String importId;
+    // Counts cover every committed chunk of the import, including those of earlier attempts
+    private long linesRead;
+    private long created;
+    private long invalid;
+    private long conflicts;
+    private boolean completed;
+    // Rejected lines of this attempt only, up to the configured maximum
+    private List<EventImportRejectionDto> rejections;
+    // Why the attempt stopped early; resume it by sending the file again with the same importId
+    private String failure;
+}
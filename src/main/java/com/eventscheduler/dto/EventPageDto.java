@@ -0,0 +1,17 @@
+package com.eventscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPageDto {
+    private List<EventDto> events;
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.eventscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupancyBucketDto {
+    private LocalDateTime bucketStart;
+    private long eventCount;
+    private long bookedMinutes;
+}
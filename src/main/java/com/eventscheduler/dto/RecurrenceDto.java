@@ -0,0 +1,25 @@
+package com.eventscheduler.dto;
+
+import com.eventscheduler.model.RecurrenceFrequency;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurrenceDto {
+    @NotNull(message = "Recurrence frequency must not be null")
+    private RecurrenceFrequency frequency;
+    @Min(value = 1, message = "Recurrence interval must be at least 1")
+    private Integer interval;
+    @Min(value = 1, message = "Recurrence count must be at least 1")
+    private Integer count;
+    private LocalDateTime until;
+}
@@ -0,0 +1,20 @@
+package com.eventscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event with the time it was last written, from which its ETag and Last-Modified are derived.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VersionedEventDto {
+    private EventDto event;
+    private LocalDateTime updatedAt;
+}
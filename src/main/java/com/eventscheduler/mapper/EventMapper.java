@@ -1,7 +1,9 @@
 package com.eventscheduler.mapper;
 
 import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.RecurrenceDto;
 import com.eventscheduler.model.Event;
+import com.eventscheduler.model.Recurrence;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -13,8 +15,10 @@ public class EventMapper {
     public Event toEntity(EventDto eventDto) {
         return Event.builder()
                 .name(eventDto.getName())
+                .resourceId(Event.resourceIdOrDefault(eventDto.getResourceId()))
                 .startTime(eventDto.getStartTime())
                 .endTime(eventDto.getEndTime())
+                .recurrence(toRecurrence(eventDto.getRecurrence()))
                 .build();
     }
 
@@ -22,8 +26,10 @@ public class EventMapper {
         return EventDto.builder()
                 .id(event.getId())
                 .name(event.getName())
+                .resourceId(event.getResourceId())
                 .startTime(event.getStartTime())
                 .endTime(event.getEndTime())
+                .recurrence(toRecurrenceDto(event.getRecurrence()))
                 .build();
     }
 
@@ -32,4 +38,28 @@ public class EventMapper {
                 .map(this::toEventDto)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private Recurrence toRecurrence(RecurrenceDto recurrenceDto) {
+        if (recurrenceDto == null) {
+            return null;
+        }
+        return Recurrence.builder()
+                .frequency(recurrenceDto.getFrequency())
+                .interval(recurrenceDto.getInterval() != null ? recurrenceDto.getInterval() : 1)
+                .count(recurrenceDto.getCount())
+                .until(recurrenceDto.getUntil())
+                .build();
+    }
+
+    private RecurrenceDto toRecurrenceDto(Recurrence recurrence) {
+        if (recurrence == null) {
+            return null;
+        }
+        return RecurrenceDto.builder()
+                .frequency(recurrence.getFrequency())
+                .interval(recurrence.getInterval())
+                .count(recurrence.getCount())
+                .until(recurrence.getUntil())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.eventscheduler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event moved to {@code events_archive} after it ended. Rows are only written by the
+ * archival job and never change.
+ */
+@Entity
+@Table(name = "events_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedEvent {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "resource_id", nullable = false, length = 64)
+    private String resourceId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Embedded
+    private Recurrence recurrence;
+
+    @Column(name = "series_end_time")
+    private LocalDateTime seriesEndTime;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public Event toEvent() {
+        return Event.builder()
+                .id(id)
+                .name(name)
+                .resourceId(resourceId)
+                .startTime(startTime)
+                .endTime(endTime)
+                .recurrence(recurrence)
+                .seriesEndTime(seriesEndTime)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -18,19 +18,35 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Event {
 
+    public static final String DEFAULT_RESOURCE_ID = "default";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
+    // Room or calendar the event books; events only conflict within the same resource
+    @Builder.Default
+    @Column(name = "resource_id", nullable = false, length = 64)
+    private String resourceId = DEFAULT_RESOURCE_ID;
+
     @Column(name = "start_time", nullable = false)
     private LocalDateTime  startTime;
 
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
+    // Null for single events, in which case start and end time are the only occurrence
+    @Embedded
+    private Recurrence recurrence;
+
+    // End of the last occurrence of a recurring event, kept so range queries can find series
+    @Column(name = "series_end_time")
+    private LocalDateTime seriesEndTime;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -38,4 +54,32 @@ public class Event {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    public static String resourceIdOrDefault(String resourceId) {
+        return resourceId != null ? resourceId : DEFAULT_RESOURCE_ID;
+    }
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * End of the last occurrence, which is the end time for a single event.
+     */
+    public LocalDateTime lastOccurrenceEnd() {
+        if (recurrence == null) {
+            return endTime;
+        }
+        return seriesEndTime != null ? seriesEndTime : computeSeriesEndTime();
+    }
+
+    @PrePersist
+    void prePersist() {
+        seriesEndTime = recurrence == null ? null : computeSeriesEndTime();
+    }
+
+    private LocalDateTime computeSeriesEndTime() {
+        long occurrences = recurrence.occurrenceCount(startTime);
+        return endTime.plus(recurrence.step().multipliedBy(Math.max(0, occurrences - 1)));
+    }
 }
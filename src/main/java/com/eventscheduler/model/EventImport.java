@@ -0,0 +1,55 @@
+package com.eventscheduler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a bulk import. It is updated in the transaction of every chunk, so
+ * {@code linesRead} is always the last line whose events are committed.
+ */
+@Entity
+@Table(name = "event_imports")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventImport {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EventImportFormat format;
+
+    @Column(name = "lines_read", nullable = false)
+    private long linesRead;
+
+    @Column(name = "created_count", nullable = false)
+    private long created;
+
+    @Column(name = "invalid_count", nullable = false)
+    private long invalid;
+
+    @Column(name = "conflict_count", nullable = false)
+    private long conflicts;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.eventscheduler.model;
+
+public enum EventImportFormat {
+    // Header line naming the columns name, startTime, endTime and optionally resourceId
+    CSV,
+    // One JSON event per line
+    NDJSON
+}
@@ -0,0 +1,49 @@
+package com.eventscheduler.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * RRULE-style repetition of an event: every {@code interval} days or weeks, ending after
+ * {@code count} occurrences or with the last occurrence starting no later than {@code until},
+ * whichever comes first.
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Recurrence {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence_frequency")
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "recurrence_interval")
+    private Integer interval;
+
+    @Column(name = "recurrence_count")
+    private Integer count;
+
+    @Column(name = "recurrence_until")
+    private LocalDateTime until;
+
+    public Duration step() {
+        return frequency.step(interval);
+    }
+
+    public long occurrenceCount(LocalDateTime firstStart) {
+        long untilCount = until == null ? Long.MAX_VALUE
+                : until.isBefore(firstStart) ? 0 : Duration.between(firstStart, until).dividedBy(step()) + 1;
+        return count == null ? untilCount : Math.min(count, untilCount);
+    }
+}
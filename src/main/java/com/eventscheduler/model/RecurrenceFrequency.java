@@ -0,0 +1,21 @@
+package com.eventscheduler.model;
+
+import java.time.Duration;
+
+public enum RecurrenceFrequency {
+    DAILY(1),
+    WEEKLY(7);
+
+    private final long days;
+
+    RecurrenceFrequency(long days) {
+        this.days = days;
+    }
+
+    /**
+     * Time between the starts of two consecutive occurrences.
+     */
+    public Duration step(int interval) {
+        return Duration.ofDays(days * interval);
+    }
+}
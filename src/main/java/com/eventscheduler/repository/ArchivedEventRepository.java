@@ -0,0 +1,74 @@
+package com.eventscheduler.repository;
+
+import com.eventscheduler.model.ArchivedEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Long> {
+    /**
+     * Archived events with any occurrence in the range, bounds inclusive, like
+     * {@link EventRepository#findEvents}.
+     */
+    @Query("SELECT e FROM ArchivedEvent e WHERE e.startTime <= :endTime " +
+            "AND (e.endTime >= :startTime OR e.seriesEndTime >= :startTime)")
+    List<ArchivedEvent> findEvents(@Param("startTime") LocalDateTime startTime,
+                                   @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT e FROM ArchivedEvent e WHERE e.resourceId = :resourceId AND e.startTime <= :endTime " +
+            "AND (e.endTime >= :startTime OR e.seriesEndTime >= :startTime)")
+    List<ArchivedEvent> findResourceEvents(@Param("resourceId") String resourceId,
+                                           @Param("startTime") LocalDateTime startTime,
+                                           @Param("endTime") LocalDateTime endTime);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM ArchivedEvent e WHERE e.startTime <= :endTime " +
+            "AND (e.endTime >= :startTime OR e.seriesEndTime >= :startTime)")
+    Stream<ArchivedEvent> streamEvents(@Param("startTime") LocalDateTime startTime,
+                                       @Param("endTime") LocalDateTime endTime);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM ArchivedEvent e WHERE e.resourceId = :resourceId AND e.startTime <= :endTime " +
+            "AND (e.endTime >= :startTime OR e.seriesEndTime >= :startTime)")
+    Stream<ArchivedEvent> streamResourceEvents(@Param("resourceId") String resourceId,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Pages of archived events in {@code (start_time, id)} order, like
+     * {@link EventRepository#findFirstPage} and {@link EventRepository#findPageAfter}.
+     */
+    @Query("SELECT e FROM ArchivedEvent e ORDER BY e.startTime, e.id")
+    List<ArchivedEvent> findFirstPage(Pageable pageable);
+
+    @Query("SELECT e FROM ArchivedEvent e WHERE e.startTime > :startTime OR (e.startTime = :startTime AND e.id > :id) " +
+            "ORDER BY e.startTime, e.id")
+    List<ArchivedEvent> findPageAfter(@Param("startTime") LocalDateTime startTime,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM ArchivedEvent e ORDER BY e.startTime, e.id")
+    Stream<ArchivedEvent> streamAll();
+
+    /**
+     * Copies the given rows of {@code events} into the archive in one statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO events_archive (id, name, resource_id, start_time, end_time, " +
+            "recurrence_frequency, recurrence_interval, recurrence_count, recurrence_until, series_end_time, " +
+            "created_at, updated_at, archived_at) " +
+            "SELECT id, name, resource_id, start_time, end_time, recurrence_frequency, recurrence_interval, " +
+            "recurrence_count, recurrence_until, series_end_time, created_at, updated_at, CURRENT_TIMESTAMP " +
+            "FROM events WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromEvents(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,7 @@
+package com.eventscheduler.repository;
+
+import com.eventscheduler.model.EventImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EventImportRepository extends JpaRepository<EventImport, String> {
+}
@@ -1,15 +1,142 @@
 package com.eventscheduler.repository;
 
+import com.eventscheduler.dto.ConflictingEventDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.TimeSlotDto;
 import com.eventscheduler.model.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
-    @Query("SELECT e FROM Event e WHERE e.startTime <= :endTime AND e.endTime >= :startTime")
+    /**
+     * Events with any occurrence in the range, bounds inclusive. Recurring events are
+     * returned once, as stored.
+     */
+    @Query("SELECT e FROM Event e WHERE e.startTime <= :endTime " +
+            "AND (e.endTime >= :startTime OR e.seriesEndTime >= :startTime)")
     List<Event> findEvents(@Param("startTime") LocalDateTime startTime,
                            @Param("endTime") LocalDateTime endTime);
-}
\ No newline at end of file
+
+    /**
+     * Same as {@link #findEvents}, limited to one resource and served by
+     * {@code idx_event_resource_time_range}.
+     */
+    @Query("SELECT e FROM Event e WHERE e.resourceId = :resourceId AND e.startTime <= :endTime " +
+            "AND (e.endTime >= :startTime OR e.seriesEndTime >= :startTime)")
+    List<Event> findResourceEvents(@Param("resourceId") String resourceId,
+                                   @Param("startTime") LocalDateTime startTime,
+                                   @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Single events of a resource overlapping the interval, where touching does not count.
+     * Pass a one-row page: the scan of {@code idx_event_resource_time_range} stops at the
+     * first match, and only that row is read to get the name.
+     */
+    @Query("SELECT new com.eventscheduler.dto.ConflictingEventDto(e.id, e.name) FROM Event e " +
+            "WHERE e.resourceId = :resourceId AND e.startTime < :endTime AND e.endTime > :startTime " +
+            "AND e.recurrence.frequency IS NULL")
+    List<ConflictingEventDto> findOverlapping(@Param("resourceId") String resourceId,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime,
+                                              Pageable pageable);
+
+    /**
+     * Single events overlapping the range, bounds inclusive, read straight into DTOs. No
+     * entities are created, so nothing is added to the persistence context.
+     */
+    @Query("SELECT new com.eventscheduler.dto.EventDto(e.id, e.name, e.resourceId, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.startTime <= :endTime AND e.endTime >= :startTime " +
+            "AND e.recurrence.frequency IS NULL")
+    List<EventDto> findSingleEventDtos(@Param("startTime") LocalDateTime startTime,
+                                       @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT new com.eventscheduler.dto.EventDto(e.id, e.name, e.resourceId, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.resourceId = :resourceId AND e.startTime <= :endTime " +
+            "AND e.endTime >= :startTime AND e.recurrence.frequency IS NULL")
+    List<EventDto> findSingleResourceEventDtos(@Param("resourceId") String resourceId,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Same as {@link #findSingleEventDtos} and {@link #findSingleResourceEventDtos}, read
+     * row by row for callers that write each event out as it arrives.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.eventscheduler.dto.EventDto(e.id, e.name, e.resourceId, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.startTime <= :endTime AND e.endTime >= :startTime " +
+            "AND e.recurrence.frequency IS NULL")
+    Stream<EventDto> streamSingleEventDtos(@Param("startTime") LocalDateTime startTime,
+                                           @Param("endTime") LocalDateTime endTime);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.eventscheduler.dto.EventDto(e.id, e.name, e.resourceId, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.resourceId = :resourceId AND e.startTime <= :endTime " +
+            "AND e.endTime >= :startTime AND e.recurrence.frequency IS NULL")
+    Stream<EventDto> streamSingleResourceEventDtos(@Param("resourceId") String resourceId,
+                                                   @Param("startTime") LocalDateTime startTime,
+                                                   @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Recurring events with an occurrence in the range, bounds inclusive.
+     */
+    @Query("SELECT e FROM Event e WHERE e.recurrence.frequency IS NOT NULL " +
+            "AND e.startTime <= :endTime AND e.seriesEndTime >= :startTime")
+    List<Event> findSeries(@Param("startTime") LocalDateTime startTime,
+                           @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT e FROM Event e WHERE e.resourceId = :resourceId AND e.recurrence.frequency IS NOT NULL " +
+            "AND e.startTime <= :endTime AND e.seriesEndTime >= :startTime")
+    List<Event> findResourceSeries(@Param("resourceId") String resourceId,
+                                   @Param("startTime") LocalDateTime startTime,
+                                   @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT e FROM Event e WHERE e.resourceId = :resourceId AND e.recurrence.frequency IS NOT NULL " +
+            "AND e.startTime < :to AND e.seriesEndTime > :from")
+    List<Event> findRecurringEvents(@Param("resourceId") String resourceId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Events whose last occurrence ended before the horizon, oldest ids first.
+     */
+    @Query("SELECT e FROM Event e WHERE e.endTime < :horizon " +
+            "AND (e.seriesEndTime IS NULL OR e.seriesEndTime < :horizon) ORDER BY e.id")
+    List<Event> findEndingBefore(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+
+    @Query("SELECT e FROM Event e ORDER BY e.startTime, e.id")
+    List<Event> findFirstPage(Pageable pageable);
+
+    @Query("SELECT e FROM Event e WHERE e.startTime > :startTime OR (e.startTime = :startTime AND e.id > :id) " +
+            "ORDER BY e.startTime, e.id")
+    List<Event> findPageAfter(@Param("startTime") LocalDateTime startTime,
+                              @Param("id") Long id,
+                              Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Event e ORDER BY e.startTime, e.id")
+    Stream<Event> streamAll();
+
+    @Query("SELECT e FROM Event e WHERE e.id > :id ORDER BY e.id")
+    List<Event> findPageAfterId(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Time taken by single events of a resource overlapping the window, in start time order.
+     * Only the two time columns are read, straight from {@code idx_event_resource_time_range}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.eventscheduler.dto.TimeSlotDto(e.startTime, e.endTime) FROM Event e " +
+            "WHERE e.resourceId = :resourceId AND e.startTime < :to AND e.endTime > :from " +
+            "AND e.recurrence.frequency IS NULL ORDER BY e.startTime")
+    Stream<TimeSlotDto> streamBusySlots(@Param("resourceId") String resourceId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,133 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.model.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes event admission per resource and time bucket so that the conflict check and
+ * the insert of overlapping events cannot interleave.
+ * <p>
+ * Time is split into fixed buckets and every bucket of every resource maps onto one of a
+ * fixed number of lock stripes. Two overlapping events of a resource always share at least
+ * one bucket, so they always share a stripe, while events in different buckets or of
+ * different resources only contend when their buckets hash to the same stripe. Stripes
+ * are taken in ascending order to rule out deadlocks and are held until the surrounding
+ * transaction completes. They are released after the after-commit listeners ordered before
+ * {@link #RELEASE_ORDER}, among them the conflict index, so a create waiting for a stripe
+ * always sees the event committed before it.
+ * <p>
+ * The locks only cover this instance. Non-overlap across instances is enforced by
+ * {@link EventResourceLocks}; the locks let creates on one instance that cannot conflict
+ * proceed in parallel up to the resource's lock row, and can be disabled.
+ */
+@Component
+public class EventAdmissionLocks {
+
+    /**
+     * Order of the synchronization releasing the stripes. After-commit listeners that must
+     * see a commit before overlapping creates proceed are ordered before it.
+     */
+    public static final int RELEASE_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private final ReentrantLock[] stripes;
+    private final long bucketSeconds;
+    private final boolean enabled;
+
+    @Autowired
+    public EventAdmissionLocks(@Value("${event-scheduler.admission.stripes:1024}") int stripeCount,
+                               @Value("${event-scheduler.admission.bucket-minutes:60}") int bucketMinutes,
+                               @Value("${event-scheduler.admission.enabled:true}") boolean enabled) {
+        if (stripeCount < 1 || bucketMinutes < 1) {
+            throw new IllegalArgumentException("Admission stripes and bucket size must be positive");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.bucketSeconds = bucketMinutes * 60L;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Blocks until every stripe covering the interval is held by the current thread.
+     * The stripes are released when the current transaction completes.
+     */
+    public void lockForTransaction(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        lockForTransaction(stripesFor(resourceId, startTime, endTime));
+    }
+
+    /**
+     * Takes the union of the stripes covering every event in one ordered pass, so that a
+     * batch cannot deadlock against another batch or a single create.
+     */
+    public void lockForTransaction(Collection<EventDto> events) {
+        BitSet stripeIndexes = new BitSet(stripes.length);
+        for (EventDto event : events) {
+            stripeIndexes.or(stripesFor(Event.resourceIdOrDefault(event.getResourceId()),
+                    event.getStartTime(), event.getEndTime()));
+        }
+        lockForTransaction(stripeIndexes);
+    }
+
+    BitSet stripesFor(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        long firstBucket = bucketOf(startTime);
+        // The interval is half-open, so an event ending exactly on a bucket boundary does not cover the next bucket.
+        long lastBucket = bucketOf(endTime.minusNanos(1));
+        BitSet stripeIndexes = new BitSet(stripes.length);
+        if (lastBucket - firstBucket + 1 >= stripes.length) {
+            stripeIndexes.set(0, stripes.length);
+            return stripeIndexes;
+        }
+        // Each resource starts its buckets at its own offset in the stripe array
+        long resourceOffset = resourceId.hashCode();
+        for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+            stripeIndexes.set((int) Math.floorMod(bucket + resourceOffset, (long) stripes.length));
+        }
+        return stripeIndexes;
+    }
+
+    private void lockForTransaction(BitSet stripeIndexes) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Admission locks can only be taken inside a transaction");
+        }
+        List<ReentrantLock> held = new ArrayList<>(stripeIndexes.cardinality());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return RELEASE_ORDER;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = held.size() - 1; i >= 0; i--) {
+                    held.get(i).unlock();
+                }
+            }
+        });
+        for (int i = stripeIndexes.nextSetBit(0); i >= 0; i = stripeIndexes.nextSetBit(i + 1)) {
+            stripes[i].lock();
+            held.add(stripes[i]);
+        }
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+}
@@ -0,0 +1,109 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.ArchivedEventRepository;
+import com.eventscheduler.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves events that ended before the archive horizon from {@code events} to
+ * {@code events_archive}, so that the hot table and its indexes only hold recent and
+ * future events.
+ * <p>
+ * Events are moved in batches, one transaction each: the rows are copied, the originals
+ * deleted and the versions of their resources bumped. Archived events no longer take part in
+ * conflict checks, which only read the hot table.
+ */
+@Slf4j
+@Service
+public class EventArchiver {
+
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final EventJournal eventJournal;
+    private final EventVersions eventVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long retentionDays;
+    private final int batchSize;
+
+    @Autowired
+    public EventArchiver(EventRepository eventRepository,
+                         ArchivedEventRepository archivedEventRepository,
+                         EventJournal eventJournal,
+                         EventVersions eventVersions,
+                         ApplicationEventPublisher eventPublisher,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${event-scheduler.archive.enabled:true}") boolean enabled,
+                         @Value("${event-scheduler.archive.retention-days:90}") long retentionDays,
+                         @Value("${event-scheduler.archive.batch-size:1000}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        this.eventJournal = eventJournal;
+        this.eventVersions = eventVersions;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Events ending before this time are archived. Every archived event ended before the
+     * horizon of the run that moved it, and the horizon only moves forward, so no archived
+     * event reaches past the current one.
+     */
+    public LocalDateTime archiveHorizon() {
+        return LocalDateTime.now().minusDays(retentionDays);
+    }
+
+    @Scheduled(initialDelayString = "${event-scheduler.archive.initial-delay-ms:60000}",
+            fixedDelayString = "${event-scheduler.archive.interval-ms:3600000}")
+    public void archivePastEvents() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime horizon = archiveHorizon();
+        int archived = 0;
+        try {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveBatch(horizon));
+                archived += moved;
+            } while (moved == batchSize);
+        } catch (DataAccessException e) {
+            // Another instance archiving the same rows wins; the rest is picked up next run
+            log.warn("Archiving stopped after {} events: {}", archived, e.getMessage());
+            return;
+        }
+        if (archived > 0) {
+            log.info("Archived {} events ending before {}", archived, horizon);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime horizon) {
+        List<Event> batch = eventRepository.findEndingBefore(horizon, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(Event::getId).toList();
+        archivedEventRepository.copyFromEvents(ids);
+        eventRepository.deleteAllByIdInBatch(ids);
+        eventVersions.bump(batch);
+        eventJournal.logArchived(ids);
+        eventPublisher.publishEvent(new EventsArchivedEvent(batch));
+        return batch.size();
+    }
+}
@@ -0,0 +1,140 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.TimeSlotDto;
+import com.eventscheduler.model.ArchivedEvent;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.ArchivedEventRepository;
+import com.eventscheduler.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+@Service
+public class EventAvailabilityService {
+
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final EventArchiver eventArchiver;
+
+    @Autowired
+    public EventAvailabilityService(EventRepository eventRepository,
+                                    ArchivedEventRepository archivedEventRepository,
+                                    EventArchiver eventArchiver) {
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        this.eventArchiver = eventArchiver;
+    }
+
+    /**
+     * Finds the free intervals of a resource of at least {@code minDuration} between
+     * {@code from} and {@code to}, earliest first.
+     * <p>
+     * Busy intervals are read in start time order and merged in a single pass: the cursor is
+     * the end of the time taken so far, and any busy interval starting after it leaves a gap.
+     * Reading stops as soon as {@code limit} slots are found, so a search over a long horizon
+     * only reads the rows before its last slot. Occurrences of recurring events within the
+     * window are merged into the stream of single events in start time order, and so are the
+     * archived events when the window starts before the archive horizon.
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSlotDto> findFreeSlots(String resourceId, LocalDateTime from, LocalDateTime to,
+                                           Duration minDuration, int limit) {
+        List<TimeSlotDto> occurrenceSlots = Stream.concat(
+                        eventRepository.findRecurringEvents(resourceId, from, to).stream(),
+                        findArchivedEvents(resourceId, from, to).stream())
+                .flatMap(event -> EventOccurrences.expand(event, from, to).stream())
+                .map(occurrence -> new TimeSlotDto(occurrence.getStartTime(), occurrence.getEndTime()))
+                .sorted(Comparator.comparing(TimeSlotDto::getStartTime))
+                .toList();
+        List<TimeSlotDto> freeSlots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        try (Stream<TimeSlotDto> busySlots = eventRepository.streamBusySlots(resourceId, from, to)) {
+            Iterator<TimeSlotDto> iterator = mergeByStartTime(busySlots.iterator(), occurrenceSlots.iterator());
+            while (iterator.hasNext() && cursor.isBefore(to)) {
+                TimeSlotDto busy = iterator.next();
+                if (busy.getStartTime().isAfter(cursor)) {
+                    addIfLongEnough(freeSlots, cursor, busy.getStartTime(), minDuration);
+                    if (freeSlots.size() == limit) {
+                        return freeSlots;
+                    }
+                }
+                if (busy.getEndTime().isAfter(cursor)) {
+                    cursor = busy.getEndTime();
+                }
+            }
+        }
+        if (cursor.isBefore(to)) {
+            addIfLongEnough(freeSlots, cursor, to, minDuration);
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Archived events of the resource in the window, single and recurring. None reach past the
+     * archive horizon, so windows starting after it skip the query. An event archived while the
+     * hot table is read may be found in both, which only repeats a busy interval.
+     */
+    private List<Event> findArchivedEvents(String resourceId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(eventArchiver.archiveHorizon())) {
+            return List.of();
+        }
+        return archivedEventRepository.findResourceEvents(resourceId, from, to).stream()
+                .map(ArchivedEvent::toEvent)
+                .toList();
+    }
+
+    private void addIfLongEnough(List<TimeSlotDto> freeSlots, LocalDateTime start, LocalDateTime end,
+                                 Duration minDuration) {
+        if (Duration.between(start, end).compareTo(minDuration) >= 0) {
+            freeSlots.add(new TimeSlotDto(start, end));
+        }
+    }
+
+    /**
+     * Merges two iterators sorted by start time, reading each only when its next element is
+     * needed so that stopping early leaves the rest of the rows unread.
+     */
+    private static Iterator<TimeSlotDto> mergeByStartTime(Iterator<TimeSlotDto> first, Iterator<TimeSlotDto> second) {
+        return new Iterator<>() {
+            private TimeSlotDto nextFirst;
+            private TimeSlotDto nextSecond;
+
+            @Override
+            public boolean hasNext() {
+                if (nextFirst == null && first.hasNext()) {
+                    nextFirst = first.next();
+                }
+                if (nextSecond == null && second.hasNext()) {
+                    nextSecond = second.next();
+                }
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public TimeSlotDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                TimeSlotDto next;
+                if (nextSecond == null
+                        || (nextFirst != null && !nextFirst.getStartTime().isAfter(nextSecond.getStartTime()))) {
+                    next = nextFirst;
+                    nextFirst = null;
+                } else {
+                    next = nextSecond;
+                    nextSecond = null;
+                }
+                return next;
+            }
+        };
+    }
+}
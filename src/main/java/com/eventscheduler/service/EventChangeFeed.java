@@ -0,0 +1,261 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed events to subscribers, each through a {@link Sink} supplied by the
+ * transport, such as the Server-Sent Events endpoint.
+ * <p>
+ * The commit listener only maps each event and offers it to the bounded buffer of every
+ * subscriber whose window it overlaps, so a slow subscriber never holds up a write. Buffers
+ * are drained by a small pool of sender threads. When a buffer is full the subscriber is
+ * either disconnected, and resumes from its last seen id when it reconnects, or the event
+ * is dropped for that subscriber, depending on {@code event-scheduler.stream.overflow}.
+ * <p>
+ * Delivery is at most once and covers the commits of this instance only. Resuming replays
+ * stored events with a higher id than the last one seen. Ids are allocated before commit, so
+ * an event committed after a later-allocated one was already delivered is not replayed, and
+ * events created by other instances are only seen through such a replay.
+ */
+@Slf4j
+@Component
+public class EventChangeFeed {
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    public enum OverflowPolicy {
+        DISCONNECT,
+        DROP
+    }
+
+    /**
+     * Delivers the events of one subscription to its client. Called by one sender thread at
+     * a time.
+     */
+    public interface Sink {
+
+        void send(EventDto event) throws IOException;
+
+        /**
+         * Ends the client's stream after an overflow, a failed send or shutdown.
+         */
+        void close();
+    }
+
+    private final EventQueryService eventQueryService;
+    private final EventMapper eventMapper;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final ExecutorService senders;
+    private final Set<Subscription> subscriptions = new CopyOnWriteArraySet<>();
+    private final Counter overflows;
+
+    @Autowired
+    public EventChangeFeed(EventQueryService eventQueryService,
+                           EventMapper eventMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${event-scheduler.stream.buffer-size:256}") int bufferSize,
+                           @Value("${event-scheduler.stream.overflow:DISCONNECT}") OverflowPolicy overflowPolicy,
+                           @Value("${event-scheduler.stream.sender-threads:4}") int senderThreads) {
+        this.eventQueryService = eventQueryService;
+        this.eventMapper = eventMapper;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.senders = Executors.newFixedThreadPool(senderThreads, senderThreadFactory());
+        this.overflows = Counter.builder("events.stream.overflows")
+                .description("Subscriber buffers that were full when an event arrived")
+                .tag("policy", overflowPolicy.name().toLowerCase())
+                .register(meterRegistry);
+        Gauge.builder("events.stream.subscribers", subscriptions, Set::size)
+                .description("Open event stream subscriptions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription to events overlapping the window, where a null bound leaves that
+     * side open. Events with an id above {@code lastEventId} are replayed first when given.
+     *
+     * @return the subscription, which the transport cancels when its client goes away
+     */
+    public Subscription subscribe(LocalDateTime startTime, LocalDateTime endTime, Long lastEventId, Sink sink) {
+        Subscription subscription = new Subscription(sink, startTime, endTime, lastEventId);
+        subscriptions.add(subscription);
+        if (lastEventId != null) {
+            schedule(subscription);
+        }
+        return subscription;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsCreated(EventsCreatedEvent createdEvent) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        List<Event> events = createdEvent.getEvents();
+        List<EventDto> eventDtos = eventMapper.toEventDtoList(events);
+        for (Subscription subscription : subscriptions) {
+            for (int i = 0; i < events.size(); i++) {
+                if (subscription.matches(events.get(i)) && !offer(subscription, eventDtos.get(i))) {
+                    break;
+                }
+            }
+            schedule(subscription);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.sink.close());
+        subscriptions.clear();
+    }
+
+    private boolean offer(Subscription subscription, EventDto event) {
+        if (subscription.buffer.offer(event)) {
+            return true;
+        }
+        overflows.increment();
+        if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+            close(subscription);
+            return false;
+        }
+        return true;
+    }
+
+    private void schedule(Subscription subscription) {
+        if (subscriptions.contains(subscription) && subscription.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            if (subscription.replayAfterId != null) {
+                replay(subscription);
+            }
+            EventDto event;
+            while ((event = subscription.buffer.poll()) != null) {
+                if (subscription.replayedIds == null || !subscription.replayedIds.contains(event.getId())) {
+                    send(subscription, event);
+                }
+            }
+            subscription.replayedIds = null;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or its stream was already closed
+            log.debug("Closing event stream subscription: {}", e.getMessage());
+            close(subscription);
+        } catch (RuntimeException e) {
+            log.error("Event stream subscription failed", e);
+            close(subscription);
+        } finally {
+            subscription.scheduled.set(false);
+            if (!subscription.buffer.isEmpty()) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    /**
+     * Sends stored events the client has not seen yet. Ids sent here are remembered so that
+     * the same events are not sent again when their commit notification is still buffered.
+     */
+    private void replay(Subscription subscription) throws IOException {
+        Set<Long> replayedIds = new HashSet<>();
+        Long afterId = subscription.replayAfterId;
+        List<Event> page;
+        do {
+            page = eventQueryService.getEventsAfterId(afterId, REPLAY_PAGE_SIZE);
+            for (Event event : page) {
+                if (subscription.matches(event)) {
+                    send(subscription, eventMapper.toEventDto(event));
+                    replayedIds.add(event.getId());
+                }
+                afterId = event.getId();
+            }
+        } while (page.size() == REPLAY_PAGE_SIZE);
+        subscription.replayedIds = replayedIds;
+        subscription.replayAfterId = null;
+    }
+
+    private void send(Subscription subscription, EventDto event) throws IOException {
+        subscription.sink.send(event);
+    }
+
+    private void close(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscription.sink.close();
+        }
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "event-stream-sender-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public final class Subscription {
+        private final Sink sink;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final BlockingQueue<EventDto> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Only touched by the sender draining this subscription
+        private Long replayAfterId;
+        private Set<Long> replayedIds;
+
+        private Subscription(Sink sink, LocalDateTime startTime, LocalDateTime endTime, Long replayAfterId) {
+            this.sink = sink;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.replayAfterId = replayAfterId;
+        }
+
+        /**
+         * Stops delivery without closing the sink, for a client that has already gone away.
+         */
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Window bounds are inclusive, matching the range query. A recurring event is sent
+         * once, when any part of its span falls in the window.
+         */
+        private boolean matches(Event event) {
+            return (startTime == null || !event.lastOccurrenceEnd().isBefore(startTime))
+                    && (endTime == null || !event.getStartTime().isAfter(endTime));
+        }
+    }
+}
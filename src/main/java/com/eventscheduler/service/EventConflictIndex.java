@@ -0,0 +1,204 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.ConflictingEventDto;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory index of stored events keyed by start time, used to answer conflict
+ * checks without a database round trip.
+ * <p>
+ * Events only conflict within their resource, so the index is split into one partition
+ * per resource. Stored events of a resource never overlap, so their end times are ordered
+ * the same way as their start times. The only candidate that can overlap a new interval is
+ * therefore the event with the latest start before the new end, which makes a check
+ * O(log n) in the size of the partition.
+ * <p>
+ * Recurring events break that ordering, so they are kept in a separate list per partition
+ * and each is checked by occurrence arithmetic. Archived events are removed, like they are
+ * from the events table.
+ * <p>
+ * The index is cold until it has been loaded at startup and goes stale if it ever
+ * sees data that breaks the no-overlap invariant. In both cases {@link #isReady()}
+ * returns false and callers should fall back to the database.
+ */
+@Slf4j
+@Component
+public class EventConflictIndex {
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final ConcurrentMap<String, Partition> partitions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Autowired
+    public EventConflictIndex(EventRepository eventRepository,
+                              @Value("${event-scheduler.conflict-index.enabled:true}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuilds the index from the events table. Events committed while the rebuild
+     * runs are still picked up through {@link #onEventsCreated(EventsCreatedEvent)}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        ready = false;
+        partitions.clear();
+        for (Event event : eventRepository.findAll()) {
+            if (!put(event)) {
+                markStale(event);
+                return;
+            }
+        }
+        ready = true;
+        log.info("Conflict index loaded with {} events in {} resources", size(), partitions.size());
+    }
+
+    /**
+     * Runs before the admission locks of the commit are released, so an overlapping create
+     * waiting for them finds the new event here.
+     */
+    @Order(EventAdmissionLocks.RELEASE_ORDER - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventsCreated(EventsCreatedEvent createdEvent) {
+        if (!enabled) {
+            return;
+        }
+        for (Event event : createdEvent.getEvents()) {
+            if (!put(event)) {
+                markStale(event);
+                return;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventsArchived(EventsArchivedEvent archivedEvent) {
+        if (!enabled) {
+            return;
+        }
+        for (Event event : archivedEvent.getEvents()) {
+            Partition partition = partitions.get(event.getResourceId());
+            if (partition != null) {
+                partition.remove(event);
+            }
+        }
+    }
+
+    /**
+     * Returns true if any indexed event of the resource overlaps the given interval.
+     * Events that only touch at their boundaries do not overlap.
+     */
+    public boolean overlaps(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return findOverlap(resourceId, startTime, endTime).isPresent();
+    }
+
+    /**
+     * Returns an indexed event of the resource overlapping the given interval, if there is one.
+     */
+    public Optional<ConflictingEventDto> findOverlap(String resourceId, LocalDateTime startTime,
+                                                     LocalDateTime endTime) {
+        Partition partition = partitions.get(resourceId);
+        return partition == null ? Optional.empty() : partition.findOverlap(startTime, endTime);
+    }
+
+    public int size() {
+        return partitions.values().stream().mapToInt(Partition::size).sum();
+    }
+
+    private boolean put(Event event) {
+        return partitions.computeIfAbsent(event.getResourceId(), resourceId -> new Partition()).put(event);
+    }
+
+    private void markStale(Event event) {
+        ready = false;
+        log.warn("Event {} overlaps an indexed event, conflict checks will use the database until the index is rebuilt",
+                event.getId());
+    }
+
+    private static final class Partition {
+        private final ConcurrentNavigableMap<LocalDateTime, IndexedEvent> eventsByStart = new ConcurrentSkipListMap<>();
+        private final List<Event> recurringEvents = new CopyOnWriteArrayList<>();
+
+        Optional<ConflictingEventDto> findOverlap(LocalDateTime startTime, LocalDateTime endTime) {
+            Map.Entry<LocalDateTime, IndexedEvent> candidate = eventsByStart.lowerEntry(endTime);
+            if (candidate != null && candidate.getValue().endTime().isAfter(startTime)) {
+                IndexedEvent overlapping = candidate.getValue();
+                return Optional.of(new ConflictingEventDto(overlapping.id(), overlapping.name()));
+            }
+            return recurringEvents.stream()
+                    .filter(series -> EventOccurrences.overlaps(series, startTime, endTime))
+                    .findFirst()
+                    .map(series -> new ConflictingEventDto(series.getId(), series.getName()));
+        }
+
+        int size() {
+            return eventsByStart.size() + recurringEvents.size();
+        }
+
+        void remove(Event event) {
+            if (event.isRecurring()) {
+                recurringEvents.removeIf(series -> Objects.equals(series.getId(), event.getId()));
+                return;
+            }
+            eventsByStart.computeIfPresent(event.getStartTime(), (startTime, indexed) ->
+                    Objects.equals(indexed.id(), event.getId()) ? null : indexed);
+        }
+
+        boolean put(Event event) {
+            if (event.isRecurring()) {
+                recurringEvents.add(event);
+                return true;
+            }
+            IndexedEvent entry = new IndexedEvent(event.getId(), event.getName(), event.getStartTime(),
+                    event.getEndTime());
+
+            Map.Entry<LocalDateTime, IndexedEvent> previous = eventsByStart.floorEntry(entry.startTime());
+            if (previous != null && !entry.isSameEvent(previous.getValue())
+                    && previous.getValue().endTime().isAfter(entry.startTime())) {
+                return false;
+            }
+            Map.Entry<LocalDateTime, IndexedEvent> next = eventsByStart.higherEntry(entry.startTime());
+            if (next != null && next.getKey().isBefore(entry.endTime())) {
+                return false;
+            }
+
+            eventsByStart.put(entry.startTime(), entry);
+            return true;
+        }
+    }
+
+    private record IndexedEvent(Long id, String name, LocalDateTime startTime, LocalDateTime endTime) {
+        boolean isSameEvent(IndexedEvent other) {
+            return Objects.equals(id, other.id);
+        }
+    }
+}
@@ -1,34 +1,184 @@
 package com.eventscheduler.service;
 
+import com.eventscheduler.dto.ConflictingEventDto;
 import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
 import com.eventscheduler.model.Event;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 @Service
 public class EventConflictService {
 
     private final EventQueryService eventQueryService;
+    private final EventConflictIndex eventConflictIndex;
+    private final EventMetrics eventMetrics;
+    private final EventMapper eventMapper;
 
     @Autowired
-    public EventConflictService(EventQueryService eventQueryService) {
+    public EventConflictService(EventQueryService eventQueryService,
+                                EventConflictIndex eventConflictIndex,
+                                EventMetrics eventMetrics,
+                                EventMapper eventMapper) {
         this.eventQueryService = eventQueryService;
+        this.eventConflictIndex = eventConflictIndex;
+        this.eventMetrics = eventMetrics;
+        this.eventMapper = eventMapper;
     }
 
     public boolean hasConflict(EventDto newEvent) {
-        List<Event> overlappingEvents = eventQueryService.findEventsInRange(
-                newEvent.getStartTime(),
-                newEvent.getEndTime()
-        );
-        return overlappingEvents.stream().anyMatch(existingEvent ->
-                isOverlap(newEvent, existingEvent)
-        );
-    }
-
-    private boolean isOverlap(EventDto newEvent, Event existingEvent) {
-        return newEvent.getStartTime().isBefore(existingEvent.getEndTime()) &&
-                newEvent.getEndTime().isAfter(existingEvent.getStartTime());
+        return findConflict(newEvent).isPresent();
+    }
+
+    /**
+     * Returns a stored event the new event conflicts with, if there is one, from the conflict
+     * index when it is loaded and from the database otherwise.
+     */
+    public Optional<ConflictingEventDto> findConflict(EventDto newEvent) {
+        return isIndexed(newEvent) ? findIndexedConflict(newEvent) : findStoredConflict(newEvent);
+    }
+
+    /**
+     * Returns an event of this instance's conflict index the new event conflicts with, without
+     * reading the database. Empty when the index is not loaded or the new event is recurring.
+     */
+    public Optional<ConflictingEventDto> findIndexedConflict(EventDto newEvent) {
+        if (!isIndexed(newEvent)) {
+            return Optional.empty();
+        }
+        return eventMetrics.recordConflictCheck(EventMetrics.SOURCE_INDEX, () ->
+                eventConflictIndex.findOverlap(Event.resourceIdOrDefault(newEvent.getResourceId()),
+                        newEvent.getStartTime(), newEvent.getEndTime()));
+    }
+
+    /**
+     * Returns a stored event the new event conflicts with, if there is one, reading the database.
+     * With the resource's row in {@code event_resource_locks} held, this also finds the events
+     * other instances committed, which the index does not hold.
+     * <p>
+     * Single events are found by an existence query that stops at the first overlapping row,
+     * and only the recurring events of the resource that reach the interval are loaded and
+     * checked by occurrence arithmetic.
+     */
+    public Optional<ConflictingEventDto> findStoredConflict(EventDto newEvent) {
+        if (newEvent.getRecurrence() != null) {
+            return findSeriesConflict(eventMapper.toEntity(newEvent));
+        }
+        String resourceId = Event.resourceIdOrDefault(newEvent.getResourceId());
+        LocalDateTime startTime = newEvent.getStartTime();
+        LocalDateTime endTime = newEvent.getEndTime();
+        return eventMetrics.recordConflictCheck(EventMetrics.SOURCE_DATABASE, () -> {
+            Optional<ConflictingEventDto> overlapping =
+                    eventQueryService.findFirstOverlapping(resourceId, startTime, endTime);
+            if (overlapping.isPresent()) {
+                return overlapping;
+            }
+            List<Event> series = eventQueryService.findSeriesInRange(resourceId, startTime, endTime);
+            eventMetrics.recordConflictCandidates(series.size());
+            return series.stream()
+                    .filter(storedSeries -> EventOccurrences.overlaps(storedSeries, startTime, endTime))
+                    .findFirst()
+                    .map(EventConflictService::toConflictingEvent);
+        });
+    }
+
+    private boolean isIndexed(EventDto newEvent) {
+        return newEvent.getRecurrence() == null && eventConflictIndex.isReady();
+    }
+
+    /**
+     * Checks a new recurring event against the stored events of its resource within its span. Stored events
+     * are compared as rows, so neither series is expanded beyond the span both cover.
+     */
+    private Optional<ConflictingEventDto> findSeriesConflict(Event newSeries) {
+        return eventMetrics.recordConflictCheck(EventMetrics.SOURCE_DATABASE, () -> {
+            List<Event> storedEvents = eventQueryService.findStoredEventsInRange(
+                    newSeries.getResourceId(),
+                    newSeries.getStartTime(),
+                    newSeries.lastOccurrenceEnd()
+            );
+            eventMetrics.recordConflictCandidates(storedEvents.size());
+            return storedEvents.stream()
+                    .filter(storedEvent -> EventOccurrences.overlaps(newSeries, storedEvent))
+                    .findFirst()
+                    .map(EventConflictService::toConflictingEvent);
+        });
+    }
+
+    /**
+     * Resolves a batch of new events for one resource against each other and against the
+     * stored events of that resource covering the batch's time span in a single sweep.
+     * <p>
+     * Candidates are visited in start order, earliest first, so when two candidates overlap
+     * the one starting first is kept. A candidate conflicts with an earlier accepted candidate
+     * when the largest end seen so far is after its start, and with a stored event when the
+     * largest end among stored events starting before its end is after its start.
+     *
+     * @param candidates     new events that passed validation
+     * @param storedEvents   stored events overlapping the span of all candidates
+     * @return positions in {@code candidates} that conflict and must not be saved
+     */
+    public BitSet findBatchConflicts(List<EventDto> candidates, List<Event> storedEvents) {
+        List<Event> sortedStored = storedEvents.stream()
+                .sorted(Comparator.comparing(Event::getStartTime))
+                .toList();
+        LocalDateTime[] storedStarts = new LocalDateTime[sortedStored.size()];
+        LocalDateTime[] storedMaxEnds = new LocalDateTime[sortedStored.size()];
+        for (int i = 0; i < sortedStored.size(); i++) {
+            Event stored = sortedStored.get(i);
+            storedStarts[i] = stored.getStartTime();
+            storedMaxEnds[i] = i == 0 || stored.getEndTime().isAfter(storedMaxEnds[i - 1])
+                    ? stored.getEndTime()
+                    : storedMaxEnds[i - 1];
+        }
+
+        int[] order = IntStream.range(0, candidates.size())
+                .boxed()
+                .sorted(Comparator.comparing((Integer i) -> candidates.get(i).getStartTime())
+                        .thenComparing(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        BitSet conflicts = new BitSet(candidates.size());
+        LocalDateTime acceptedMaxEnd = null;
+        for (int position : order) {
+            EventDto candidate = candidates.get(position);
+            int storedBefore = countStartingBefore(storedStarts, candidate.getEndTime());
+            boolean storedConflict = storedBefore > 0
+                    && storedMaxEnds[storedBefore - 1].isAfter(candidate.getStartTime());
+            boolean batchConflict = acceptedMaxEnd != null
+                    && acceptedMaxEnd.isAfter(candidate.getStartTime());
+            if (storedConflict || batchConflict) {
+                conflicts.set(position);
+            } else if (acceptedMaxEnd == null || candidate.getEndTime().isAfter(acceptedMaxEnd)) {
+                acceptedMaxEnd = candidate.getEndTime();
+            }
+        }
+        return conflicts;
+    }
+
+    private int countStartingBefore(LocalDateTime[] sortedStarts, LocalDateTime time) {
+        int low = 0;
+        int high = sortedStarts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedStarts[mid].isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static ConflictingEventDto toConflictingEvent(Event event) {
+        return new ConflictingEventDto(event.getId(), event.getName());
     }
 }
@@ -0,0 +1,48 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the events ordered by (start time, id). Clients receive it as an opaque
+ * token and send it back to fetch the page that follows.
+ */
+@Getter
+@AllArgsConstructor
+public class EventCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime startTime;
+    private final Long id;
+
+    public static EventCursor of(Event event) {
+        return new EventCursor(event.getStartTime(), event.getId());
+    }
+
+    public static EventCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid page cursor.");
+            }
+            return new EventCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid page cursor.");
+        }
+    }
+
+    public String encode() {
+        String value = startTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,183 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.model.EventImportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an import file one line at a time, so only the current line is held in memory.
+ * Lines that cannot be parsed are returned as rows with an error instead of failing the
+ * import; blank lines are skipped but still counted.
+ */
+final class EventImportReader implements Closeable {
+
+    record Row(long line, EventDto event, String error) {
+    }
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "starttime", "endtime");
+
+    private final BufferedReader reader;
+    private final EventImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+
+    EventImportReader(InputStream input, EventImportFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == EventImportFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Line of the file read last, starting at 1.
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Skips forward to just after the given line without parsing the lines in between.
+     */
+    void skipTo(long line) throws IOException {
+        while (lineNumber < line && reader.readLine() != null) {
+            lineNumber++;
+        }
+    }
+
+    /**
+     * Returns the next non-blank line, or null at the end of the file.
+     */
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        try {
+            EventDto event = format == EventImportFormat.CSV ? parseCsv(line) : parseJson(line);
+            return new Row(lineNumber, event, null);
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNumber, null, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        lineNumber++;
+        if (header == null) {
+            throw new BadRequestException("A CSV import must start with a header line.");
+        }
+        List<String> names;
+        try {
+            names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("The CSV header is not valid: " + e.getMessage());
+        }
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new BadRequestException("The CSV header must name the columns name, startTime and endTime.");
+        }
+    }
+
+    private EventDto parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        return EventDto.builder()
+                .name(field(fields, "name"))
+                .resourceId(field(fields, "resourceid"))
+                .startTime(parseTime(field(fields, "starttime"), "startTime"))
+                .endTime(parseTime(field(fields, "endtime"), "endTime"))
+                .build();
+    }
+
+    private EventDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, EventDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The line is not a valid JSON event: " + e.getOriginalMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static LocalDateTime parseTime(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(column + " must be an ISO-8601 local date time such as 2024-11-22T09:00:00.");
+        }
+    }
+
+    /**
+     * Splits one CSV record. Fields may be quoted, with doubled quotes inside quoted fields;
+     * records spanning lines are not supported.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("The line has an unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
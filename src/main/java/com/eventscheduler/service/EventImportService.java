@@ -0,0 +1,200 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventBatchResultDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.EventImportRejectionDto;
+import com.eventscheduler.dto.EventImportReportDto;
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.exception.ConflictException;
+import com.eventscheduler.exception.EventNotFoundException;
+import com.eventscheduler.model.EventImport;
+import com.eventscheduler.model.EventImportFormat;
+import com.eventscheduler.repository.EventImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Imports events from CSV or NDJSON files of any size.
+ * <p>
+ * The file is read line by line and handled in chunks, each committed in its own transaction
+ * through {@link EventService#createEvents}: rows are validated like batch items, checked
+ * against the stored events and against each other with the sorted sweep, and the accepted
+ * ones inserted in JDBC batches. Rows of earlier chunks are committed by then, so conflicts
+ * within the file are found across chunks too.
+ * <p>
+ * The import's checkpoint in {@code event_imports} is updated in the same transaction as each
+ * chunk. An import that fails part way is resumed by sending the same file with the same
+ * import id; lines up to the checkpoint are skipped without being parsed.
+ */
+@Slf4j
+@Service
+public class EventImportService {
+
+    private final EventService eventService;
+    private final EventImportRepository eventImportRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxRejections;
+
+    @Autowired
+    public EventImportService(EventService eventService,
+                              EventImportRepository eventImportRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${event-scheduler.import.chunk-size:1000}") int chunkSize,
+                              @Value("${event-scheduler.import.max-rejections:1000}") int maxRejections) {
+        this.eventService = eventService;
+        this.eventImportRepository = eventImportRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxRejections = maxRejections;
+    }
+
+    /**
+     * Imports the file, or resumes the import with the given id after its last committed chunk.
+     *
+     * @param importId id of the import to resume, or null to start a new one
+     * @return counts over the whole import and the lines rejected by this attempt
+     */
+    public EventImportReportDto importEvents(String importId, EventImportFormat format, InputStream input) {
+        EventImport checkpoint = startOrResume(importId, format);
+        List<EventImportRejectionDto> rejections = new ArrayList<>();
+        if (checkpoint.isCompleted()) {
+            return report(checkpoint, rejections, null);
+        }
+
+        try (EventImportReader reader = new EventImportReader(input, format, objectMapper)) {
+            reader.skipTo(checkpoint.getLinesRead());
+            List<EventImportReader.Row> chunk = new ArrayList<>(chunkSize);
+            EventImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    checkpoint = commitChunk(checkpoint.getId(), chunk, row.line(), false, rejections);
+                    chunk.clear();
+                }
+            }
+            checkpoint = commitChunk(checkpoint.getId(), chunk, reader.lineNumber(), true, rejections);
+        } catch (IOException | ConflictException | DataAccessException e) {
+            // Committed chunks stay; the caller resumes after them
+            log.warn("Import {} stopped after line {}: {}", checkpoint.getId(), checkpoint.getLinesRead(),
+                    e.getMessage());
+            return report(checkpoint, rejections, e.getMessage());
+        }
+        log.info("Import {} completed: {} created, {} invalid, {} conflicts", checkpoint.getId(),
+                checkpoint.getCreated(), checkpoint.getInvalid(), checkpoint.getConflicts());
+        return report(checkpoint, rejections, null);
+    }
+
+    /**
+     * Progress of an import as of its last committed chunk.
+     */
+    public EventImportReportDto getImport(String importId) {
+        return eventImportRepository.findById(importId)
+                .map(checkpoint -> report(checkpoint, List.of(), null))
+                .orElseThrow(() -> new EventNotFoundException("Import not found with ID: " + importId));
+    }
+
+    private EventImport startOrResume(String importId, EventImportFormat format) {
+        if (importId == null) {
+            return eventImportRepository.save(newImport(UUID.randomUUID().toString(), format));
+        }
+        EventImport checkpoint = eventImportRepository.findById(importId)
+                .orElseGet(() -> eventImportRepository.save(newImport(importId, format)));
+        if (checkpoint.getFormat() != format) {
+            throw new BadRequestException("Import " + importId + " was started as " + checkpoint.getFormat() + ".");
+        }
+        return checkpoint;
+    }
+
+    private EventImport commitChunk(String importId, List<EventImportReader.Row> chunk, long lastLine,
+                                    boolean completed, List<EventImportRejectionDto> rejections) {
+        List<EventImportRejectionDto> chunkRejections = new ArrayList<>();
+        EventImport committed = transactionTemplate.execute(status -> {
+            List<EventImportReader.Row> parsedRows = new ArrayList<>();
+            List<EventDto> events = new ArrayList<>();
+            for (EventImportReader.Row row : chunk) {
+                if (row.event() == null) {
+                    chunkRejections.add(rejection(row.line(), EventBatchResultDto.Status.INVALID, row.error()));
+                } else {
+                    parsedRows.add(row);
+                    events.add(row.event());
+                }
+            }
+            long created = 0;
+            long conflicts = 0;
+            List<EventBatchResultDto> results = events.isEmpty() ? List.of() : eventService.createEvents(events);
+            for (int i = 0; i < results.size(); i++) {
+                EventBatchResultDto result = results.get(i);
+                if (result.getStatus() == EventBatchResultDto.Status.CREATED) {
+                    created++;
+                    continue;
+                }
+                if (result.getStatus() == EventBatchResultDto.Status.CONFLICT) {
+                    conflicts++;
+                }
+                chunkRejections.add(rejection(parsedRows.get(i).line(), result.getStatus(), result.getMessage()));
+            }
+
+            EventImport checkpoint = eventImportRepository.findById(importId).orElseThrow();
+            checkpoint.setLinesRead(lastLine);
+            checkpoint.setCreated(checkpoint.getCreated() + created);
+            checkpoint.setConflicts(checkpoint.getConflicts() + conflicts);
+            checkpoint.setInvalid(checkpoint.getInvalid() + chunk.size() - created - conflicts);
+            checkpoint.setCompleted(completed);
+            return eventImportRepository.save(checkpoint);
+        });
+        // Parse errors and batch results were collected separately; report them in line order
+        chunkRejections.sort(Comparator.comparingLong(EventImportRejectionDto::getLine));
+        // Only rejections of committed chunks are reported, the others are read again on resume
+        int room = maxRejections - rejections.size();
+        rejections.addAll(chunkRejections.subList(0, Math.max(0, Math.min(room, chunkRejections.size()))));
+        return committed;
+    }
+
+    private static EventImport newImport(String importId, EventImportFormat format) {
+        if (importId.isBlank() || importId.length() > 64) {
+            throw new BadRequestException("Import id must be between 1 and 64 characters.");
+        }
+        return EventImport.builder()
+                .id(importId)
+                .format(format)
+                .build();
+    }
+
+    private static EventImportRejectionDto rejection(long line, EventBatchResultDto.Status status, String message) {
+        return EventImportRejectionDto.builder()
+                .line(line)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private static EventImportReportDto report(EventImport checkpoint, List<EventImportRejectionDto> rejections,
+                                               String failure) {
+        return EventImportReportDto.builder()
+                .importId(checkpoint.getId())
+                .linesRead(checkpoint.getLinesRead())
+                .created(checkpoint.getCreated())
+                .invalid(checkpoint.getInvalid())
+                .conflicts(checkpoint.getConflicts())
+                .completed(checkpoint.isCompleted())
+                .rejections(rejections)
+                .failure(failure)
+                .build();
+    }
+}
@@ -0,0 +1,491 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+import com.eventscheduler.model.Recurrence;
+import com.eventscheduler.model.RecurrenceFrequency;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Makes the in-memory database durable: every committed event is appended to a write-ahead
+ * log on disk, and a compact snapshot of the tables is written periodically. On startup the
+ * latest snapshot is loaded and the log written after it replayed, so the database comes back
+ * with every acknowledged event.
+ * <p>
+ * Events are appended after their transaction commits, before the request returns, and the
+ * log is forced to disk before the caller continues. Concurrent commits share one force (see
+ * {@link EventJournalLog}). A commit whose append fails is reported to the client as an error,
+ * although the event stays readable until the next restart.
+ * <p>
+ * A snapshot starts a new log generation and then copies the tables, so generation {@code n}
+ * holds everything in {@code snapshot-n} plus the records in {@code wal-n} and later. Older
+ * files are only deleted once the new snapshot has been renamed into place. Records are
+ * replayed idempotently, since a snapshot may already hold events logged after it started.
+ * <p>
+ * Restoring replaces the tables, so the journal refuses to start against anything but an
+ * in-memory H2 database. It inserts the rows in batches and recomputes the occupancy
+ * rollups; the in-memory indexes are then rebuilt from the tables as on any startup.
+ */
+@Slf4j
+@Component
+public class EventJournal implements SmartInitializingSingleton {
+
+    private static final Pattern FILE_NAME = Pattern.compile("(wal|snapshot)-(\\d+)\\.(log|bin)");
+    private static final int SNAPSHOT_MAGIC = 0x45564a31;
+    private static final byte SNAPSHOT_EVENT = 1;
+    private static final byte SNAPSHOT_ARCHIVED = 2;
+    private static final byte SNAPSHOT_END = 0;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String EVENT_COLUMNS = "id, name, resource_id, start_time, end_time, " +
+            "recurrence_frequency, recurrence_interval, recurrence_count, recurrence_until, series_end_time, " +
+            "created_at, updated_at";
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO events (" + EVENT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_EVENT_SQL =
+            "MERGE INTO events (" + EVENT_COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ARCHIVED_SQL = "INSERT INTO events_archive (" + EVENT_COLUMNS +
+            ", archived_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ARCHIVE_COPY_SQL = "INSERT INTO events_archive (" + EVENT_COLUMNS +
+            ", archived_at) SELECT " + EVENT_COLUMNS + ", ? FROM events e WHERE e.id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM events_archive a WHERE a.id = e.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventOccupancyRollups eventOccupancyRollups;
+    private final boolean enabled;
+    private final Path directory;
+    private final long regionBytes;
+    private final Object snapshotLock = new Object();
+    private EventJournalLog wal;
+    private long generation;
+
+    @Autowired
+    public EventJournal(JdbcTemplate jdbcTemplate,
+                        EventOccupancyRollups eventOccupancyRollups,
+                        @Value("${event-scheduler.journal.enabled:false}") boolean enabled,
+                        @Value("${event-scheduler.journal.directory:data/journal}") Path directory,
+                        @Value("${event-scheduler.journal.region-bytes:67108864}") long regionBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventOccupancyRollups = eventOccupancyRollups;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.regionBytes = regionBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Restores the tables from the journal once the schema has been migrated, before the
+     * in-memory indexes are loaded and before any request is served.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        requireInMemoryDatabase();
+        try {
+            restore();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore the event journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Logs the events once the current transaction commits and waits until they are on disk.
+     * Outside a transaction they are logged right away.
+     */
+    public void logCreated(List<Event> events) {
+        if (enabled) {
+            afterCommit(() -> append(EventJournalCodec.encodeCreated(events)));
+        }
+    }
+
+    /**
+     * Logs that the events were moved to the archive once the current transaction commits.
+     */
+    public void logArchived(List<Long> ids) {
+        if (enabled) {
+            LocalDateTime archivedAt = LocalDateTime.now();
+            afterCommit(() -> append(EventJournalCodec.encodeArchived(ids, archivedAt)));
+        }
+    }
+
+    /**
+     * Writes a snapshot of the tables and drops the log generations it covers.
+     */
+    @Scheduled(initialDelayString = "${event-scheduler.journal.snapshot-interval-ms:600000}",
+            fixedDelayString = "${event-scheduler.journal.snapshot-interval-ms:600000}")
+    public void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            try {
+                long snapshotGeneration = startGeneration();
+                long start = System.nanoTime();
+                long events = writeSnapshot(snapshotGeneration);
+                deleteFilesBefore(snapshotGeneration);
+                log.info("Wrote journal snapshot {} with {} events in {} ms", snapshotGeneration, events,
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException e) {
+                // The previous snapshot and the log still cover everything
+                log.error("Could not write a journal snapshot: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (wal != null) {
+            wal.close();
+            wal = null;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void append(byte[] payload) {
+        EventJournalLog current;
+        long recordEnd;
+        try {
+            synchronized (this) {
+                if (wal == null) {
+                    throw new IOException("The event journal is closed");
+                }
+                current = wal;
+                recordEnd = current.append(payload);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the event journal", e);
+        }
+        current.awaitDurable(recordEnd);
+    }
+
+    private synchronized long startGeneration() throws IOException {
+        if (wal != null) {
+            wal.close();
+        }
+        generation++;
+        wal = EventJournalLog.openForAppend(walFile(generation), 0, regionBytes);
+        return generation;
+    }
+
+    private void restore() throws IOException {
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        OptionalLong snapshotGeneration = latest("snapshot");
+        long restored = 0;
+        if (snapshotGeneration.isPresent()) {
+            jdbcTemplate.update("DELETE FROM events");
+            jdbcTemplate.update("DELETE FROM events_archive");
+            restored = loadSnapshot(snapshotGeneration.getAsLong());
+        }
+        long from = snapshotGeneration.orElse(0);
+        List<Long> logs = generations("wal").stream().filter(g -> g >= from).toList();
+        long records = 0;
+        long validEnd = 0;
+        for (long walGeneration : logs) {
+            Replay replay = new Replay();
+            validEnd = EventJournalLog.read(walFile(walGeneration), replay::apply);
+            replay.flush();
+            records += replay.records;
+        }
+        restartSequence();
+        eventOccupancyRollups.rebuild();
+        log.info("Restored {} events from the journal snapshot and {} log records in {} ms", restored, records,
+                (System.nanoTime() - start) / 1_000_000);
+        if (snapshotGeneration.isEmpty()) {
+            // The first snapshot holds the rows created by the migrations
+            generation = logs.isEmpty() ? 0 : logs.get(logs.size() - 1);
+            snapshot();
+            return;
+        }
+        synchronized (this) {
+            // Appends continue the last log, after its last complete record
+            generation = logs.isEmpty() ? from : logs.get(logs.size() - 1);
+            wal = EventJournalLog.openForAppend(walFile(generation), validEnd, regionBytes);
+        }
+    }
+
+    private long writeSnapshot(long snapshotGeneration) throws IOException {
+        Path target = directory.resolve("snapshot-" + snapshotGeneration + ".bin");
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        long[] count = new long[1];
+        try (OutputStream file = Files.newOutputStream(temporary);
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc);
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            // Events before the archive: an event archived in between is in both and the archive wins
+            jdbcTemplate.query("SELECT " + EVENT_COLUMNS + " FROM events", rs -> {
+                try {
+                    out.writeByte(SNAPSHOT_EVENT);
+                    EventJournalCodec.writeEvent(out, mapEvent(rs));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            jdbcTemplate.query("SELECT " + EVENT_COLUMNS + ", archived_at FROM events_archive", rs -> {
+                try {
+                    out.writeByte(SNAPSHOT_ARCHIVED);
+                    EventJournalCodec.writeEvent(out, mapEvent(rs));
+                    EventJournalCodec.writeTime(out, rs.getTimestamp("archived_at").toLocalDateTime());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.writeByte(SNAPSHOT_END);
+            out.flush();
+            out.writeInt((int) crc.getValue());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    private long loadSnapshot(long snapshotGeneration) throws IOException {
+        List<Event> events = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> archived = new ArrayList<>(BATCH_SIZE);
+        CRC32C crc = new CRC32C();
+        long count = 0;
+        try (InputStream file = Files.newInputStream(snapshotFile(snapshotGeneration));
+             CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, 1 << 16), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a journal snapshot: " + snapshotFile(snapshotGeneration));
+            }
+            for (byte tag = in.readByte(); tag != SNAPSHOT_END; tag = in.readByte()) {
+                Event event = EventJournalCodec.readEvent(in);
+                if (tag == SNAPSHOT_EVENT) {
+                    events.add(event);
+                    count++;
+                    if (events.size() == BATCH_SIZE) {
+                        insertEvents(INSERT_EVENT_SQL, events);
+                        events.clear();
+                    }
+                } else {
+                    archived.add(archivedRow(event, EventJournalCodec.readTime(in)));
+                    if (archived.size() == BATCH_SIZE) {
+                        jdbcTemplate.batchUpdate(INSERT_ARCHIVED_SQL, archived);
+                        archived.clear();
+                    }
+                }
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Corrupt journal snapshot: " + snapshotFile(snapshotGeneration));
+            }
+        }
+        insertEvents(INSERT_EVENT_SQL, events);
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVED_SQL, archived);
+        return count - jdbcTemplate.update("DELETE FROM events WHERE id IN (SELECT id FROM events_archive)");
+    }
+
+    private void insertEvents(String sql, List<Event> events) {
+        jdbcTemplate.batchUpdate(sql, events, BATCH_SIZE, EventJournal::bindEvent);
+    }
+
+    /**
+     * Restoring replaces the contents of the tables, which is only safe for the in-memory
+     * database the journal makes durable. A shared or persistent database would be wiped.
+     */
+    private void requireInMemoryDatabase() {
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        if (url == null || !url.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("The event journal restores an in-memory H2 database and would "
+                    + "overwrite " + url + "; disable event-scheduler.journal.enabled for this datasource.");
+        }
+    }
+
+    /**
+     * Moves the sequence past every restored id, so new events never reuse one. Its start
+     * and increment are read from the schema rather than assumed.
+     */
+    private void restartSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT GREATEST(" +
+                "COALESCE((SELECT MAX(id) FROM events), 0), " +
+                "COALESCE((SELECT MAX(id) FROM events_archive), 0))", Long.class);
+        long[] sequence = jdbcTemplate.queryForObject("SELECT START_VALUE, INCREMENT " +
+                        "FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EVENTS_SEQ'",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        // Hibernate's pooled optimizer hands out the block ending at the value it reads
+        long restart = Math.max(sequence[0], maxId + sequence[1]);
+        jdbcTemplate.execute("ALTER SEQUENCE events_seq RESTART WITH " + restart);
+    }
+
+    private void deleteFilesBefore(long keepGeneration) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(2)) < keepGeneration) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private OptionalLong latest(String kind) throws IOException {
+        List<Long> found = generations(kind);
+        return found.isEmpty() ? OptionalLong.empty() : OptionalLong.of(found.get(found.size() - 1));
+    }
+
+    private List<Long> generations(String kind) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> FILE_NAME.matcher(file.getFileName().toString()))
+                    .filter(matcher -> matcher.matches() && matcher.group(1).equals(kind))
+                    .map(matcher -> Long.parseLong(matcher.group(2)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path walFile(long walGeneration) {
+        return directory.resolve("wal-" + walGeneration + ".log");
+    }
+
+    private Path snapshotFile(long snapshotGeneration) {
+        return directory.resolve("snapshot-" + snapshotGeneration + ".bin");
+    }
+
+    private static Event mapEvent(ResultSet rs) throws SQLException {
+        String frequency = rs.getString("recurrence_frequency");
+        Recurrence recurrence = frequency == null ? null : Recurrence.builder()
+                .frequency(RecurrenceFrequency.valueOf(frequency))
+                .interval(rs.getInt("recurrence_interval"))
+                .count(rs.getObject("recurrence_count", Integer.class))
+                .until(rs.getObject("recurrence_until", LocalDateTime.class))
+                .build();
+        return Event.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .resourceId(rs.getString("resource_id"))
+                .startTime(rs.getObject("start_time", LocalDateTime.class))
+                .endTime(rs.getObject("end_time", LocalDateTime.class))
+                .recurrence(recurrence)
+                .seriesEndTime(rs.getObject("series_end_time", LocalDateTime.class))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .build();
+    }
+
+    private static void bindEvent(PreparedStatement statement, Event event) throws SQLException {
+        Object[] row = eventRow(event);
+        for (int i = 0; i < row.length; i++) {
+            statement.setObject(i + 1, row[i]);
+        }
+    }
+
+    private static Object[] eventRow(Event event) {
+        Recurrence recurrence = event.getRecurrence();
+        return new Object[]{
+                event.getId(), event.getName(), event.getResourceId(), event.getStartTime(), event.getEndTime(),
+                recurrence == null ? null : recurrence.getFrequency().name(),
+                recurrence == null ? null : recurrence.getInterval(),
+                recurrence == null ? null : recurrence.getCount(),
+                recurrence == null ? null : recurrence.getUntil(),
+                event.getSeriesEndTime(), event.getCreatedAt(), event.getUpdatedAt()};
+    }
+
+    private static Object[] archivedRow(Event event, LocalDateTime archivedAt) {
+        Object[] row = eventRow(event);
+        Object[] archived = new Object[row.length + 1];
+        System.arraycopy(row, 0, archived, 0, row.length);
+        archived[row.length] = Timestamp.valueOf(archivedAt);
+        return archived;
+    }
+
+    /**
+     * Applies log records to the tables. Created events are merged in batches; an archive
+     * record first applies the events before it, since it may move them.
+     */
+    private final class Replay {
+
+        private final List<Event> pending = new ArrayList<>(BATCH_SIZE);
+        private long records;
+
+        void apply(byte[] payload) throws IOException {
+            EventJournalCodec.Record record = EventJournalCodec.decode(payload);
+            records++;
+            if (record.type() == EventJournalCodec.CREATED) {
+                pending.addAll(record.events());
+                if (pending.size() >= BATCH_SIZE) {
+                    flush();
+                }
+                return;
+            }
+            flush();
+            List<Long> ids = record.archivedIds();
+            Timestamp archivedAt = Timestamp.valueOf(record.archivedAt());
+            jdbcTemplate.batchUpdate(ARCHIVE_COPY_SQL, ids, BATCH_SIZE, (statement, id) -> {
+                statement.setTimestamp(1, archivedAt);
+                statement.setLong(2, id);
+            });
+            jdbcTemplate.batchUpdate("DELETE FROM events WHERE id = ?", ids, BATCH_SIZE,
+                    (statement, id) -> statement.setLong(1, id));
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            insertEvents(MERGE_EVENT_SQL, pending);
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+import com.eventscheduler.model.Recurrence;
+import com.eventscheduler.model.RecurrenceFrequency;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of journal records and snapshot entries. Times are written as epoch
+ * seconds and nanoseconds of the local date time, so they read back exactly.
+ */
+final class EventJournalCodec {
+
+    static final byte CREATED = 1;
+    static final byte ARCHIVED = 2;
+
+    /**
+     * A decoded log record: the events stored by one commit, or the ids archived by one.
+     */
+    record Record(byte type, List<Event> events, List<Long> archivedIds, LocalDateTime archivedAt) {
+    }
+
+    private EventJournalCodec() {
+    }
+
+    static byte[] encodeCreated(List<Event> events) {
+        return encode(out -> {
+            out.writeByte(CREATED);
+            out.writeInt(events.size());
+            for (Event event : events) {
+                writeEvent(out, event);
+            }
+        });
+    }
+
+    static byte[] encodeArchived(List<Long> ids, LocalDateTime archivedAt) {
+        return encode(out -> {
+            out.writeByte(ARCHIVED);
+            writeTime(out, archivedAt);
+            out.writeInt(ids.size());
+            for (Long id : ids) {
+                out.writeLong(id);
+            }
+        });
+    }
+
+    static Record decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        if (type == CREATED) {
+            int count = in.readInt();
+            List<Event> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                events.add(readEvent(in));
+            }
+            return new Record(type, events, List.of(), null);
+        }
+        if (type == ARCHIVED) {
+            LocalDateTime archivedAt = readTime(in);
+            int count = in.readInt();
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(in.readLong());
+            }
+            return new Record(type, List.of(), ids, archivedAt);
+        }
+        throw new IOException("Unknown journal record type " + type);
+    }
+
+    static void writeEvent(DataOutput out, Event event) throws IOException {
+        out.writeLong(event.getId());
+        out.writeUTF(event.getName());
+        out.writeUTF(event.getResourceId());
+        writeTime(out, event.getStartTime());
+        writeTime(out, event.getEndTime());
+        Recurrence recurrence = event.getRecurrence();
+        out.writeBoolean(recurrence != null);
+        if (recurrence != null) {
+            out.writeUTF(recurrence.getFrequency().name());
+            out.writeInt(recurrence.getInterval());
+            out.writeInt(recurrence.getCount() != null ? recurrence.getCount() : -1);
+            writeNullableTime(out, recurrence.getUntil());
+        }
+        writeNullableTime(out, event.getSeriesEndTime());
+        writeTime(out, event.getCreatedAt());
+        writeTime(out, event.getUpdatedAt());
+    }
+
+    static Event readEvent(DataInput in) throws IOException {
+        Event.EventBuilder event = Event.builder()
+                .id(in.readLong())
+                .name(in.readUTF())
+                .resourceId(in.readUTF())
+                .startTime(readTime(in))
+                .endTime(readTime(in));
+        if (in.readBoolean()) {
+            RecurrenceFrequency frequency = RecurrenceFrequency.valueOf(in.readUTF());
+            int interval = in.readInt();
+            int count = in.readInt();
+            event.recurrence(Recurrence.builder()
+                    .frequency(frequency)
+                    .interval(interval)
+                    .count(count >= 0 ? count : null)
+                    .until(readNullableTime(in))
+                    .build());
+        }
+        return event
+                .seriesEndTime(readNullableTime(in))
+                .createdAt(readTime(in))
+                .updatedAt(readTime(in))
+                .build();
+    }
+
+    static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    static LocalDateTime readTime(DataInput in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeNullableTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            writeTime(out, time);
+        }
+    }
+
+    private static LocalDateTime readNullableTime(DataInput in) throws IOException {
+        return in.readBoolean() ? readTime(in) : null;
+    }
+
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,160 @@
+package com.eventscheduler.service;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped write-ahead log file.
+ * <p>
+ * Each record is its payload length, a CRC32C of the payload, and the payload. The file is
+ * mapped in regions ahead of the writes, so unwritten space reads as zeros and a length of
+ * zero marks the end. A record whose checksum does not match, as left by a crash part way
+ * through a write, also ends the log.
+ * <p>
+ * Appends only copy into the mapping. {@link #awaitDurable(long)} forces the mapping to disk
+ * for every record appended so far, so callers waiting at the same time share one force:
+ * while one thread forces, later callers queue on the lock and usually find their records
+ * already covered when they get it.
+ */
+final class EventJournalLog implements Closeable {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    interface RecordHandler {
+        void handle(byte[] payload) throws IOException;
+    }
+
+    private final FileChannel channel;
+    private final long regionBytes;
+    private final Object syncLock = new Object();
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private volatile long durablePosition;
+
+    private EventJournalLog(FileChannel channel, long position, long regionBytes) throws IOException {
+        this.channel = channel;
+        this.regionBytes = regionBytes;
+        this.position = position;
+        this.durablePosition = position;
+        map(position, regionBytes);
+    }
+
+    /**
+     * Opens the log for appending after {@code validEnd}, dropping anything after it so that
+     * records of a write that never completed cannot reappear behind new ones.
+     */
+    static EventJournalLog openForAppend(Path file, long validEnd, long regionBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() > validEnd) {
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        return new EventJournalLog(channel, validEnd, regionBytes);
+    }
+
+    /**
+     * Hands every complete record of the file to the handler in order.
+     *
+     * @return the position after the last complete record
+     */
+    static long read(Path file, RecordHandler handler) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long size = Files.size(file);
+        long position = 0;
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            CRC32C crc = new CRC32C();
+            while (position + HEADER_BYTES <= size) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                handler.handle(payload);
+                position += HEADER_BYTES + length;
+            }
+        } catch (EOFException e) {
+            // A record cut short ends the log
+        }
+        return position;
+    }
+
+    /**
+     * Copies the record into the log. It is only durable once {@link #awaitDurable(long)}
+     * has returned for the returned position.
+     *
+     * @return the position after the record
+     */
+    synchronized long append(byte[] payload) throws IOException {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (position + recordBytes > regionStart + region.capacity()) {
+            // Records never span regions; the full region is forced before it is let go
+            region.force();
+            map(position, Math.max(regionBytes, recordBytes));
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int offset = (int) (position - regionStart);
+        region.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        region.put(offset + HEADER_BYTES, payload);
+        // The length goes last, so a record is never visible before its payload
+        region.putInt(offset, payload.length);
+        position += recordBytes;
+        return position;
+    }
+
+    /**
+     * Blocks until every record up to {@code recordEnd} is on disk.
+     */
+    void awaitDurable(long recordEnd) {
+        if (durablePosition >= recordEnd) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durablePosition >= recordEnd) {
+                return;
+            }
+            MappedByteBuffer current;
+            long target;
+            synchronized (this) {
+                current = region;
+                target = position;
+            }
+            current.force();
+            durablePosition = target;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        region.force();
+        durablePosition = position;
+        channel.close();
+    }
+
+    private void map(long start, long bytes) throws IOException {
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, bytes);
+        regionStart = start;
+    }
+}
@@ -0,0 +1,120 @@
+package com.eventscheduler.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the scheduling hot paths. All meter names start with {@code events.}, so
+ * percentile histograms can be switched on for all of them with a single property.
+ */
+@Component
+public class EventMetrics {
+
+    public static final String PHASE_VALIDATION = "validation";
+    public static final String PHASE_ADMISSION = "admission";
+    public static final String PHASE_CONFLICT_CHECK = "conflict_check";
+    public static final String PHASE_PERSISTENCE = "persistence";
+
+    public static final String OUTCOME_CREATED = "created";
+    public static final String OUTCOME_CONFLICT = "conflict";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_ERROR = "error";
+
+    public static final String SOURCE_INDEX = "index";
+    public static final String SOURCE_DATABASE = "database";
+
+    public static final String QUERY_RANGE = "range";
+    public static final String QUERY_RANGE_TIMELINE = "range_timeline";
+    public static final String QUERY_ALL = "all";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter conflicts;
+    private final Counter rejected;
+    private final DistributionSummary conflictCandidates;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> querySizes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.conflicts = Counter.builder("events.conflicts")
+                .description("Events refused because they overlap an existing event")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("events.rejected")
+                .description("Events refused because they failed validation")
+                .register(meterRegistry);
+        this.conflictCandidates = DistributionSummary.builder("events.conflict.candidates")
+                .description("Rows returned by the range query of a database conflict check")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Stops the timer of a create call and counts conflicts and rejections.
+     */
+    public void recordCreate(Timer.Sample sample, String outcome) {
+        sample.stop(timer("events.create", "outcome", outcome));
+        recordOutcome(outcome, 1);
+    }
+
+    /**
+     * Counts conflicts and rejections that did not fail a whole call, such as batch items.
+     */
+    public void recordOutcome(String outcome, int count) {
+        if (OUTCOME_CONFLICT.equals(outcome)) {
+            conflicts.increment(count);
+        } else if (OUTCOME_REJECTED.equals(outcome)) {
+            rejected.increment(count);
+        }
+    }
+
+    public void recordPhase(String phase, Runnable action) {
+        timer("events.create.phase", "phase", phase).record(action);
+    }
+
+    public <T> T recordPhase(String phase, Supplier<T> action) {
+        return timer("events.create.phase", "phase", phase).record(action);
+    }
+
+    public <T> T recordConflictCheck(String source, Supplier<T> check) {
+        return timer("events.conflict.check", "source", source).record(check);
+    }
+
+    public void recordConflictCandidates(int count) {
+        conflictCandidates.record(count);
+    }
+
+    /**
+     * Times a query and records how many rows it returned.
+     */
+    public <T extends Collection<?>> T recordQuery(String operation, Supplier<T> query) {
+        T results = timer("events.query", "operation", operation).record(query);
+        querySize(operation).record(results.size());
+        return results;
+    }
+
+    private Timer timer(String name, String tagKey, String tagValue) {
+        return timers.computeIfAbsent(name + ':' + tagValue, key -> Timer.builder(name)
+                .tag(tagKey, tagValue)
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary querySize(String operation) {
+        return querySizes.computeIfAbsent(operation, key -> DistributionSummary.builder("events.query.results")
+                .description("Rows returned by an event query")
+                .tag("operation", operation)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,290 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.model.OccupancyGranularity;
+import com.eventscheduler.model.Recurrence;
+import com.eventscheduler.model.RecurrenceFrequency;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the number of events and the booked time of every resource per hour and per day in
+ * {@code event_occupancy_rollups}, so occupancy over a range is read from one row per bucket
+ * and resource instead of from the events.
+ * <p>
+ * Rows are added to in the transaction that stores the events, so they are exactly as
+ * current as the events themselves. An event is counted once in every bucket it overlaps,
+ * with the part of it falling in the bucket as booked time. Rows are updated in key order so
+ * that concurrent creates touching the same buckets cannot deadlock, and a row inserted by a
+ * concurrent transaction is added to instead. Archived events stay counted.
+ * <p>
+ * Recurring events may run indefinitely, so they are not stored in the rows. Their
+ * occurrences in the requested range are expanded when it is read, from the series of the
+ * hot and archive tables, which are few.
+ */
+@Component
+public class EventOccupancyRollups {
+
+    public static final String INSERT_SQL = "INSERT INTO event_occupancy_rollups " +
+            "(resource_id, granularity, bucket_start, event_count, booked_seconds) VALUES (?, ?, ?, ?, ?)";
+    public static final String ADD_SQL = "UPDATE event_occupancy_rollups " +
+            "SET event_count = event_count + ?, booked_seconds = booked_seconds + ? " +
+            "WHERE resource_id = ? AND granularity = ? AND bucket_start = ?";
+
+    private static final String EVENT_COLUMNS = "id, resource_id, start_time, end_time, recurrence_frequency, " +
+            "recurrence_interval, recurrence_count, recurrence_until";
+    private static final String SERIES_FILTER = "recurrence_frequency IS NOT NULL AND series_end_time > ? " +
+            "AND start_time < ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBuckets;
+
+    @Autowired
+    public EventOccupancyRollups(JdbcTemplate jdbcTemplate,
+                                 @Value("${event-scheduler.occupancy.max-buckets:10000}") int maxBuckets) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Returns every bucket from the one containing {@code from} up to {@code to}, empty ones
+     * included, with the events of one resource or of all resources when {@code resourceId}
+     * is null. Booked time is rounded down to whole minutes.
+     *
+     * @param granularity {@code hour} or {@code day}
+     * @throws BadRequestException if the granularity is unknown or the range spans more than
+     *                             {@code max-buckets} buckets
+     */
+    public List<OccupancyBucketDto> getOccupancy(String resourceId, LocalDateTime from, LocalDateTime to,
+                                                 String granularity) {
+        OccupancyGranularity unit = parseGranularity(granularity);
+        LocalDateTime first = unit.bucketOf(from);
+        if (first.plus(unit.step().multipliedBy(maxBuckets)).isBefore(to)) {
+            throw new BadRequestException("The range must not span more than " + maxBuckets + " buckets.");
+        }
+
+        String resourceFilter = resourceId != null ? " AND resource_id = ?" : "";
+        String sql = "SELECT bucket_start, SUM(event_count), SUM(booked_seconds) FROM event_occupancy_rollups " +
+                "WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?" + resourceFilter +
+                " GROUP BY bucket_start";
+        Object[] args = resourceId != null
+                ? new Object[]{unit.name(), first, to, resourceId}
+                : new Object[]{unit.name(), first, to};
+        Map<LocalDateTime, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            totals.put(rs.getObject(1, LocalDateTime.class), new Totals(rs.getLong(2), rs.getLong(3)));
+        }, args);
+
+        LocalDateTime end = first;
+        while (end.isBefore(to)) {
+            end = end.plus(unit.step());
+        }
+        addSeries(totals, unit, resourceId, first, end);
+
+        List<OccupancyBucketDto> buckets = new ArrayList<>();
+        for (LocalDateTime bucket = first; bucket.isBefore(to); bucket = bucket.plus(unit.step())) {
+            Totals bucketTotals = totals.getOrDefault(bucket, new Totals(0, 0));
+            buckets.add(new OccupancyBucketDto(bucket, bucketTotals.eventCount(), bucketTotals.bookedSeconds() / 60));
+        }
+        return buckets;
+    }
+
+    /**
+     * Adds the occurrences of the recurring events falling in the buckets from {@code first}
+     * up to {@code end}.
+     */
+    private void addSeries(Map<LocalDateTime, Totals> totals, OccupancyGranularity unit, String resourceId,
+                           LocalDateTime first, LocalDateTime end) {
+        String resourceFilter = resourceId != null ? " AND resource_id = ?" : "";
+        Object[] args = resourceId != null ? new Object[]{first, end, resourceId} : new Object[]{first, end};
+        for (String table : List.of("events", "events_archive")) {
+            jdbcTemplate.query("SELECT " + EVENT_COLUMNS + " FROM " + table + " WHERE " + SERIES_FILTER +
+                    resourceFilter, rs -> {
+                for (Event occurrence : EventOccurrences.expand(toEvent(rs), first, end)) {
+                    forEachBucket(occurrence, unit, (bucket, seconds) -> {
+                        if (!bucket.isBefore(first) && bucket.isBefore(end)) {
+                            totals.merge(bucket, new Totals(1, seconds), Totals::plus);
+                        }
+                    });
+                }
+            }, args);
+        }
+    }
+
+    /**
+     * Adds the events to their buckets in the current transaction. Must be called after the
+     * events have been given their ids.
+     */
+    public void add(List<Event> events) {
+        List<Map.Entry<Bucket, Totals>> rows = new ArrayList<>(rollupsOf(events).entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(ADD_SQL, rows, BATCH_SIZE,
+                (statement, row) -> bindAdd(statement, row.getKey(), row.getValue()));
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                Map.Entry<Bucket, Totals> row = rows.get(index++);
+                if (count == 0) {
+                    insertOrAdd(row.getKey(), row.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Recomputes every row from the stored and archived events, after the tables have been
+     * loaded behind this class's back.
+     */
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM event_occupancy_rollups");
+        Map<Bucket, Totals> totals = new TreeMap<>();
+        for (String table : List.of("events", "events_archive")) {
+            jdbcTemplate.query("SELECT " + EVENT_COLUMNS + " FROM " + table + " WHERE recurrence_frequency IS NULL",
+                    (RowCallbackHandler) rs -> addRollups(totals, toEvent(rs)));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new ArrayList<>(totals.entrySet()), BATCH_SIZE,
+                (statement, row) -> bindInsert(statement, row.getKey(), row.getValue()));
+    }
+
+    /**
+     * Returns the totals of the single events per bucket, ordered by bucket. Recurring
+     * events are left out, since their occurrences are counted when read.
+     */
+    public static Map<Bucket, Totals> rollupsOf(Collection<Event> events) {
+        Map<Bucket, Totals> totals = new TreeMap<>();
+        events.forEach(event -> addRollups(totals, event));
+        return totals;
+    }
+
+    /**
+     * Adds a single event to the totals: it counts once in each hour and day bucket it
+     * overlaps, with its time within the bucket.
+     */
+    private static void addRollups(Map<Bucket, Totals> totals, Event event) {
+        if (event.isRecurring()) {
+            return;
+        }
+        for (OccupancyGranularity granularity : OccupancyGranularity.values()) {
+            forEachBucket(event, granularity, (bucket, seconds) -> totals.merge(
+                    new Bucket(event.getResourceId(), granularity, bucket), new Totals(1, seconds), Totals::plus));
+        }
+    }
+
+    /**
+     * Calls the action with the start of every bucket the occurrence overlaps and the seconds
+     * of it falling in that bucket.
+     */
+    private static void forEachBucket(Event occurrence, OccupancyGranularity granularity,
+                                      BiConsumer<LocalDateTime, Long> action) {
+        LocalDateTime bucket = granularity.bucketOf(occurrence.getStartTime());
+        for (; bucket.isBefore(occurrence.getEndTime()); bucket = bucket.plus(granularity.step())) {
+            LocalDateTime start = max(occurrence.getStartTime(), bucket);
+            LocalDateTime end = min(occurrence.getEndTime(), bucket.plus(granularity.step()));
+            action.accept(bucket, Duration.between(start, end).toSeconds());
+        }
+    }
+
+    private static OccupancyGranularity parseGranularity(String granularity) {
+        for (OccupancyGranularity unit : OccupancyGranularity.values()) {
+            if (unit.name().equalsIgnoreCase(granularity)) {
+                return unit;
+            }
+        }
+        throw new BadRequestException("Granularity must be hour or day.");
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private void insertOrAdd(Bucket bucket, Totals totals) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, statement -> bindInsert(statement, bucket, totals));
+        } catch (DuplicateKeyException e) {
+            // Inserted by a concurrent transaction since the update found no row
+            jdbcTemplate.update(ADD_SQL, statement -> bindAdd(statement, bucket, totals));
+        }
+    }
+
+    private static void bindInsert(PreparedStatement statement, Bucket bucket, Totals totals)
+            throws SQLException {
+        statement.setString(1, bucket.resourceId());
+        statement.setString(2, bucket.granularity().name());
+        statement.setObject(3, bucket.start());
+        statement.setLong(4, totals.eventCount());
+        statement.setLong(5, totals.bookedSeconds());
+    }
+
+    private static void bindAdd(PreparedStatement statement, Bucket bucket, Totals totals)
+            throws SQLException {
+        statement.setLong(1, totals.eventCount());
+        statement.setLong(2, totals.bookedSeconds());
+        statement.setString(3, bucket.resourceId());
+        statement.setString(4, bucket.granularity().name());
+        statement.setObject(5, bucket.start());
+    }
+
+    private static Event toEvent(ResultSet row) throws SQLException {
+        String frequency = row.getString("recurrence_frequency");
+        return Event.builder()
+                .id(row.getLong("id"))
+                .resourceId(row.getString("resource_id"))
+                .startTime(row.getObject("start_time", LocalDateTime.class))
+                .endTime(row.getObject("end_time", LocalDateTime.class))
+                .recurrence(frequency == null ? null : Recurrence.builder()
+                        .frequency(RecurrenceFrequency.valueOf(frequency))
+                        .interval(row.getObject("recurrence_interval", Integer.class))
+                        .count(row.getObject("recurrence_count", Integer.class))
+                        .until(row.getObject("recurrence_until", LocalDateTime.class))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Key of one row of the rollup table. Rows are written in this order, so they are also
+     * locked in it.
+     */
+    public record Bucket(String resourceId, OccupancyGranularity granularity, LocalDateTime start)
+            implements Comparable<Bucket> {
+
+        private static final Comparator<Bucket> ORDER = Comparator.comparing(Bucket::resourceId)
+                .thenComparing(Bucket::granularity)
+                .thenComparing(Bucket::start);
+
+        @Override
+        public int compareTo(Bucket other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    public record Totals(long eventCount, long bookedSeconds) {
+
+        Totals plus(Totals other) {
+            return new Totals(eventCount + other.eventCount, bookedSeconds + other.bookedSeconds);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Occurrence arithmetic for recurring events. Occurrence {@code k} of a series starts at
+ * {@code start + k * step}, so the occurrences touching an interval can be found by division
+ * instead of by walking the series from its first occurrence.
+ */
+final class EventOccurrences {
+
+    private EventOccurrences() {
+    }
+
+    /**
+     * Returns the occurrences of the event overlapping the window, bounds inclusive like the
+     * range query. A single event is its own only occurrence.
+     */
+    static List<Event> expand(Event event, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        if (!event.isRecurring()) {
+            return List.of(event);
+        }
+        Duration step = event.getRecurrence().step();
+        long occurrences = event.getRecurrence().occurrenceCount(event.getStartTime());
+        // First occurrence ending at or after the window start
+        long first = 0;
+        if (event.getEndTime().isBefore(windowStart)) {
+            Duration gap = Duration.between(event.getEndTime(), windowStart);
+            first = gap.dividedBy(step);
+            if (event.getEndTime().plus(step.multipliedBy(first)).isBefore(windowStart)) {
+                first++;
+            }
+        }
+        List<Event> expanded = new ArrayList<>();
+        for (long k = first; k < occurrences; k++) {
+            LocalDateTime start = event.getStartTime().plus(step.multipliedBy(k));
+            if (start.isAfter(windowEnd)) {
+                break;
+            }
+            expanded.add(occurrence(event, start, event.getEndTime().plus(step.multipliedBy(k))));
+        }
+        return expanded;
+    }
+
+    /**
+     * Returns true if any occurrence of the event overlaps the interval. Occurrences that
+     * only touch it at their boundaries do not overlap.
+     */
+    static boolean overlaps(Event event, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!event.isRecurring()) {
+            return event.getStartTime().isBefore(endTime) && event.getEndTime().isAfter(startTime);
+        }
+        Duration step = event.getRecurrence().step();
+        long occurrences = event.getRecurrence().occurrenceCount(event.getStartTime());
+        // First occurrence ending after the interval start; only it can overlap
+        long candidate = 0;
+        if (!event.getEndTime().isAfter(startTime)) {
+            candidate = Duration.between(event.getEndTime(), startTime).dividedBy(step) + 1;
+        }
+        return candidate < occurrences
+                && event.getStartTime().plus(step.multipliedBy(candidate)).isBefore(endTime);
+    }
+
+    /**
+     * Returns true if any occurrence of one event overlaps any occurrence of the other. When
+     * both recur, only the occurrences of the sparser series within the span shared by both
+     * are visited, each checked against the other series by arithmetic.
+     */
+    static boolean overlaps(Event first, Event second) {
+        if (!first.isRecurring()) {
+            return overlaps(second, first.getStartTime(), first.getEndTime());
+        }
+        if (!second.isRecurring()) {
+            return overlaps(first, second.getStartTime(), second.getEndTime());
+        }
+        Event sparser = first.getRecurrence().step().compareTo(second.getRecurrence().step()) >= 0 ? first : second;
+        Event denser = sparser == first ? second : first;
+        LocalDateTime spanStart = max(first.getStartTime(), second.getStartTime());
+        LocalDateTime spanEnd = min(first.lastOccurrenceEnd(), second.lastOccurrenceEnd());
+        if (!spanStart.isBefore(spanEnd)) {
+            return false;
+        }
+        return expand(sparser, spanStart, spanEnd).stream()
+                .anyMatch(occurrence -> overlaps(denser, occurrence.getStartTime(), occurrence.getEndTime()));
+    }
+
+    private static Event occurrence(Event series, LocalDateTime startTime, LocalDateTime endTime) {
+        return Event.builder()
+                .id(series.getId())
+                .name(series.getName())
+                .resourceId(series.getResourceId())
+                .startTime(startTime)
+                .endTime(endTime)
+                .recurrence(series.getRecurrence())
+                .seriesEndTime(series.getSeriesEndTime())
+                .createdAt(series.getCreatedAt())
+                .updatedAt(series.getUpdatedAt())
+                .build();
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -3,19 +3,53 @@ package com.eventscheduler.service;
 import com.eventscheduler.model.Event;
 import com.eventscheduler.repository.EventRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class EventPersistenceService {
 
     private final EventRepository eventRepository;
+    private final EventOccupancyRollups eventOccupancyRollups;
+    private final EventVersions eventVersions;
+    private final EventJournal eventJournal;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public EventPersistenceService(EventRepository eventRepository) {
+    public EventPersistenceService(EventRepository eventRepository,
+                                   EventOccupancyRollups eventOccupancyRollups,
+                                   EventVersions eventVersions,
+                                   EventJournal eventJournal,
+                                   ApplicationEventPublisher eventPublisher) {
         this.eventRepository = eventRepository;
+        this.eventOccupancyRollups = eventOccupancyRollups;
+        this.eventVersions = eventVersions;
+        this.eventJournal = eventJournal;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Stores the event, adds it to the occupancy rollups and bumps the version of its resource
+     * in the current transaction. With the journal enabled, the commit only returns once the event
+     * is in the journal on disk.
+     */
     public Event saveEvent(Event event) {
-        return eventRepository.save(event);
+        Event savedEvent = eventRepository.save(event);
+        eventOccupancyRollups.add(List.of(savedEvent));
+        eventVersions.bump(List.of(savedEvent));
+        eventJournal.logCreated(List.of(savedEvent));
+        eventPublisher.publishEvent(new EventsCreatedEvent(List.of(savedEvent)));
+        return savedEvent;
+    }
+
+    public List<Event> saveEvents(List<Event> events) {
+        List<Event> savedEvents = eventRepository.saveAll(events);
+        eventOccupancyRollups.add(savedEvents);
+        eventVersions.bump(savedEvents);
+        eventJournal.logCreated(savedEvents);
+        eventPublisher.publishEvent(new EventsCreatedEvent(savedEvents));
+        return savedEvents;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.VersionedEventDto;
+import com.eventscheduler.model.Event;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through caches for single events and for time window queries.
+ * <p>
+ * Events are never modified once created, so a cached event stays valid until it expires
+ * or is archived. A new or archived event only changes the result of windows of its
+ * resource, or of all resources, that it overlaps, and those windows are dropped once the
+ * change has been committed. Hit, miss and eviction counts are published as
+ * {@code cache.*} metrics tagged with the cache name.
+ */
+@Component
+public class EventQueryCache {
+
+    private final Cache<Long, VersionedEventDto> eventsById;
+    private final Cache<TimeWindow, List<EventDto>> eventsByWindow;
+    // Changes on every invalidation so that a load racing with a commit is not cached
+    private final AtomicLong windowGeneration = new AtomicLong();
+
+    @Autowired
+    public EventQueryCache(MeterRegistry meterRegistry,
+                           @Value("${event-scheduler.cache.by-id.max-size:10000}") long byIdMaxSize,
+                           @Value("${event-scheduler.cache.by-id.ttl-seconds:600}") long byIdTtlSeconds,
+                           @Value("${event-scheduler.cache.by-window.max-size:1000}") long byWindowMaxSize,
+                           @Value("${event-scheduler.cache.by-window.ttl-seconds:60}") long byWindowTtlSeconds) {
+        this.eventsById = Caffeine.newBuilder()
+                .maximumSize(byIdMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(byIdTtlSeconds))
+                .recordStats()
+                .build();
+        this.eventsByWindow = Caffeine.newBuilder()
+                .maximumSize(byWindowMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(byWindowTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, eventsById, "events-by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, eventsByWindow, "events-by-window");
+    }
+
+    /**
+     * Returns the cached event or loads it. Missing events are not cached, because an
+     * event with that id may still be created.
+     */
+    public Optional<VersionedEventDto> getById(Long id, Function<Long, Optional<VersionedEventDto>> loader) {
+        VersionedEventDto cached = eventsById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<VersionedEventDto> loaded = loader.apply(id);
+        loaded.ifPresent(event -> eventsById.put(id, event));
+        return loaded;
+    }
+
+    /**
+     * Returns the cached events of the window or loads them. A null resource stands for
+     * the window across all resources.
+     */
+    public List<EventDto> getInWindow(String resourceId, LocalDateTime startTime, LocalDateTime endTime,
+                                      Supplier<List<EventDto>> loader) {
+        TimeWindow window = new TimeWindow(resourceId, startTime, endTime);
+        List<EventDto> cached = eventsByWindow.getIfPresent(window);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = windowGeneration.get();
+        List<EventDto> loaded = List.copyOf(loader.get());
+        if (windowGeneration.get() == generation) {
+            eventsByWindow.put(window, loaded);
+            if (windowGeneration.get() != generation) {
+                eventsByWindow.invalidate(window);
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsCreated(EventsCreatedEvent createdEvent) {
+        invalidateWindows(createdEvent.getEvents());
+    }
+
+    /**
+     * Drops the moved events, so that they are read again from the archive, and the windows
+     * they overlap, which may no longer read the archive.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsArchived(EventsArchivedEvent archivedEvent) {
+        List<Event> events = archivedEvent.getEvents();
+        eventsById.invalidateAll(events.stream().map(Event::getId).toList());
+        invalidateWindows(events);
+    }
+
+    private void invalidateWindows(List<Event> events) {
+        windowGeneration.incrementAndGet();
+        eventsByWindow.asMap().keySet().removeIf(window -> events.stream().anyMatch(window::overlaps));
+    }
+
+    /**
+     * Window bounds are inclusive, matching the range query. A recurring event is treated as
+     * covering its whole span.
+     */
+    private record TimeWindow(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        boolean overlaps(Event event) {
+            return (resourceId == null || resourceId.equals(event.getResourceId()))
+                    && !startTime.isAfter(event.lastOccurrenceEnd()) && !endTime.isBefore(event.getStartTime());
+        }
+    }
+}
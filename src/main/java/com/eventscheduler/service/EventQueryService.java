@@ -1,33 +1,279 @@
 package com.eventscheduler.service;
 
+import com.eventscheduler.dto.ConflictingEventDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.ArchivedEvent;
 import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.ArchivedEventRepository;
 import com.eventscheduler.repository.EventRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EventQueryService {
 
+    private static final Comparator<Event> PAGE_ORDER =
+            Comparator.comparing(Event::getStartTime).thenComparing(Event::getId);
+
     private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final EventMetrics eventMetrics;
+    private final EventMapper eventMapper;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final EventArchiver eventArchiver;
 
     @Autowired
-    public EventQueryService(EventRepository eventRepository) {
+    public EventQueryService(EventRepository eventRepository, EntityManager entityManager,
+                             EventMetrics eventMetrics, EventMapper eventMapper,
+                             ArchivedEventRepository archivedEventRepository, EventArchiver eventArchiver) {
         this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.eventMetrics = eventMetrics;
+        this.eventMapper = eventMapper;
+        this.archivedEventRepository = archivedEventRepository;
+        this.eventArchiver = eventArchiver;
     }
 
+    /**
+     * Returns every event, archived ones included. The archive is read after the hot table,
+     * so an event archived between the two reads is found in both and returned once.
+     */
+    @Transactional(readOnly = true)
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        return eventMetrics.recordQuery(EventMetrics.QUERY_ALL, () -> {
+            List<Event> events = new ArrayList<>(eventRepository.findAll());
+            Set<Long> hotIds = events.stream().map(Event::getId).collect(Collectors.toSet());
+            for (ArchivedEvent archivedEvent : archivedEventRepository.findAll()) {
+                if (!hotIds.contains(archivedEvent.getId())) {
+                    events.add(archivedEvent.toEvent());
+                }
+            }
+            return events;
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} events ordered by start time and id, starting after the
+     * cursor, or from the beginning when the cursor is null. Pages run over the hot table and
+     * the archive together; an event keeps its key when it is archived, so moving it between
+     * pages neither skips nor repeats it.
+     */
+    @Transactional(readOnly = true)
+    public List<Event> getEventsPage(EventCursor after, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<Event> events = after == null
+                ? eventRepository.findFirstPage(page)
+                : eventRepository.findPageAfter(after.getStartTime(), after.getId(), page);
+        List<ArchivedEvent> archived = after == null
+                ? archivedEventRepository.findFirstPage(page)
+                : archivedEventRepository.findPageAfter(after.getStartTime(), after.getId(), page);
+        // An event archived between the two reads is in both pages; its hot row is kept
+        return Stream.concat(events.stream(), archived.stream().map(ArchivedEvent::toEvent))
+                .collect(Collectors.toMap(Event::getId, event -> event, (hot, archivedCopy) -> hot))
+                .values().stream()
+                .sorted(PAGE_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Returns up to {@code limit} events with an id above {@code id}, in id order.
+     */
+    public List<Event> getEventsAfterId(Long id, int limit) {
+        return eventRepository.findPageAfterId(id, PageRequest.of(0, limit));
     }
 
+    /**
+     * Hands every event, archived ones included, to the consumer in start time and id order.
+     * The hot table and the archive are read side by side and merged, and each row is detached
+     * once consumed, so memory use does not grow with the size of the tables.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllEvents(Consumer<Event> consumer) {
+        try (Stream<Event> events = eventRepository.streamAll();
+             Stream<ArchivedEvent> archived = archivedEventRepository.streamAll()) {
+            Iterator<Event> hot = events.iterator();
+            Iterator<Event> old = archived.map(archivedEvent -> {
+                entityManager.detach(archivedEvent);
+                return archivedEvent.toEvent();
+            }).iterator();
+            Event nextHot = hot.hasNext() ? hot.next() : null;
+            Event nextOld = old.hasNext() ? old.next() : null;
+            while (nextHot != null || nextOld != null) {
+                int order = nextHot == null ? 1 : nextOld == null ? -1 : PAGE_ORDER.compare(nextHot, nextOld);
+                if (order <= 0) {
+                    consumer.accept(nextHot);
+                    entityManager.detach(nextHot);
+                    nextHot = hot.hasNext() ? hot.next() : null;
+                }
+                if (order >= 0) {
+                    // An event archived after the hot table was read is in both; it is handed over once
+                    if (order > 0) {
+                        consumer.accept(nextOld);
+                    }
+                    nextOld = old.hasNext() ? old.next() : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the occurrences in the range, bounds inclusive. Recurring events are expanded
+     * into their occurrences within the range only.
+     */
     public List<Event> findEventsInRange(LocalDateTime startTime, LocalDateTime endTime) {
-        return eventRepository.findEvents(startTime, endTime);
+        return eventMetrics.recordQuery(EventMetrics.QUERY_RANGE, () ->
+                eventRepository.findEvents(startTime, endTime).stream()
+                        .flatMap(event -> EventOccurrences.expand(event, startTime, endTime).stream())
+                        .toList());
+    }
+
+    /**
+     * Same as {@link #findEventsInRange(LocalDateTime, LocalDateTime)}, limited to one resource.
+     */
+    public List<Event> findEventsInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return eventMetrics.recordQuery(EventMetrics.QUERY_RANGE, () ->
+                eventRepository.findResourceEvents(resourceId, startTime, endTime).stream()
+                        .flatMap(event -> EventOccurrences.expand(event, startTime, endTime).stream())
+                        .toList());
+    }
+
+    /**
+     * Returns the occurrences in the range as DTOs, of one resource or of all resources when
+     * {@code resourceId} is null. Single events are read straight into DTOs in a read-only
+     * transaction, skipping entity hydration, dirty-checking snapshots and the mapping step;
+     * only recurring events are loaded as entities to be expanded.
+     * <p>
+     * The archive is only read when the range starts before the archive horizon, since no
+     * archived event reaches past it. An event archived between the two reads is returned by
+     * both, so archived rows already found in the hot table are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<EventDto> findEventDtosInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return eventMetrics.recordQuery(EventMetrics.QUERY_RANGE, () -> {
+            List<EventDto> events = new ArrayList<>(resourceId == null
+                    ? eventRepository.findSingleEventDtos(startTime, endTime)
+                    : eventRepository.findSingleResourceEventDtos(resourceId, startTime, endTime));
+            List<Event> series = resourceId == null
+                    ? eventRepository.findSeries(startTime, endTime)
+                    : eventRepository.findResourceSeries(resourceId, startTime, endTime);
+            for (Event event : series) {
+                EventOccurrences.expand(event, startTime, endTime).forEach(occurrence ->
+                        events.add(eventMapper.toEventDto(occurrence)));
+            }
+            if (startTime.isBefore(eventArchiver.archiveHorizon())) {
+                Set<Long> hotIds = events.stream().map(EventDto::getId).collect(Collectors.toSet());
+                List<ArchivedEvent> archived = resourceId == null
+                        ? archivedEventRepository.findEvents(startTime, endTime)
+                        : archivedEventRepository.findResourceEvents(resourceId, startTime, endTime);
+                for (ArchivedEvent archivedEvent : archived) {
+                    if (!hotIds.contains(archivedEvent.getId())) {
+                        EventOccurrences.expand(archivedEvent.toEvent(), startTime, endTime).forEach(occurrence ->
+                                events.add(eventMapper.toEventDto(occurrence)));
+                    }
+                }
+            }
+            return events;
+        });
+    }
+
+    /**
+     * Hands the occurrences in the range to the consumer, like {@link #findEventDtosInRange}
+     * returns them, as they are read. Single events are streamed straight into DTOs, and
+     * recurring and archived events are detached once their occurrences are handed over, so
+     * memory use does not grow with the number of events in the range. Only the ids of hot
+     * rows are kept while the archive still has to be read, to skip events archived meanwhile.
+     */
+    @Transactional(readOnly = true)
+    public void streamEventDtosInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime,
+                                       Consumer<EventDto> consumer) {
+        boolean readArchive = startTime.isBefore(eventArchiver.archiveHorizon());
+        Set<Long> hotIds = new HashSet<>();
+        try (Stream<EventDto> events = resourceId == null
+                ? eventRepository.streamSingleEventDtos(startTime, endTime)
+                : eventRepository.streamSingleResourceEventDtos(resourceId, startTime, endTime)) {
+            events.forEach(event -> {
+                if (readArchive) {
+                    hotIds.add(event.getId());
+                }
+                consumer.accept(event);
+            });
+        }
+        List<Event> series = resourceId == null
+                ? eventRepository.findSeries(startTime, endTime)
+                : eventRepository.findResourceSeries(resourceId, startTime, endTime);
+        for (Event event : series) {
+            if (readArchive) {
+                hotIds.add(event.getId());
+            }
+            EventOccurrences.expand(event, startTime, endTime).forEach(occurrence ->
+                    consumer.accept(eventMapper.toEventDto(occurrence)));
+            entityManager.detach(event);
+        }
+        if (!readArchive) {
+            return;
+        }
+        try (Stream<ArchivedEvent> archived = resourceId == null
+                ? archivedEventRepository.streamEvents(startTime, endTime)
+                : archivedEventRepository.streamResourceEvents(resourceId, startTime, endTime)) {
+            archived.forEach(archivedEvent -> {
+                entityManager.detach(archivedEvent);
+                if (!hotIds.contains(archivedEvent.getId())) {
+                    EventOccurrences.expand(archivedEvent.toEvent(), startTime, endTime).forEach(occurrence ->
+                            consumer.accept(eventMapper.toEventDto(occurrence)));
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns a single event of the resource overlapping the interval, if there is one.
+     * Touching events do not overlap. Recurring events are not considered.
+     */
+    public Optional<ConflictingEventDto> findFirstOverlapping(String resourceId, LocalDateTime startTime,
+                                                              LocalDateTime endTime) {
+        return eventRepository.findOverlapping(resourceId, startTime, endTime, PageRequest.of(0, 1))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Returns the recurring events of a resource with an occurrence in the range, bounds
+     * inclusive, without expanding them.
+     */
+    public List<Event> findSeriesInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return eventRepository.findResourceSeries(resourceId, startTime, endTime);
+    }
+
+    /**
+     * Returns the stored events of a resource with an occurrence in the range, without
+     * expanding series.
+     */
+    public List<Event> findStoredEventsInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return eventRepository.findResourceEvents(resourceId, startTime, endTime);
     }
 
+    /**
+     * Returns the event from the hot table or, once it has been moved there, from the archive.
+     */
     public Optional<Event> getEventById(Long id) {
-        return eventRepository.findById(id);
+        return eventRepository.findById(id)
+                .or(() -> archivedEventRepository.findById(id).map(ArchivedEvent::toEvent));
     }
-}
\ No newline at end of file
+}
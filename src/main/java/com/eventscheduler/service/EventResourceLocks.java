@@ -0,0 +1,60 @@
+package com.eventscheduler.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Enforces the no-overlap rule across every instance writing to the database.
+ * <p>
+ * Every resource has one row in {@code event_resource_locks}, which a create locks with
+ * {@code SELECT ... FOR UPDATE} before its final conflict check against the stored events.
+ * The row lock is held until the transaction ends, so a create from any instance waits for
+ * the transactions holding the lock of its resource and then reads the events they committed.
+ * One row is written per resource, however long the event or its series.
+ * <p>
+ * The lock covers the whole resource, so creates of one resource are checked one at a time;
+ * the in-process admission locks keep creates on one instance from queueing on the row when
+ * they overlap anyway.
+ */
+@Component
+public class EventResourceLocks {
+
+    public static final String LOCK_SQL = "SELECT resource_id FROM event_resource_locks WHERE resource_id = ? FOR UPDATE";
+    public static final String INSERT_SQL = "INSERT INTO event_resource_locks (resource_id) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EventResourceLocks(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks the rows of the resources until the current transaction ends. Rows are locked in
+     * resource order so that concurrent writers cannot deadlock on them, and the row of a new
+     * resource is inserted, which locks it too, or locked once a concurrent insert commits.
+     */
+    public void lock(Collection<String> resourceIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Resource locks can only be taken inside a transaction");
+        }
+        SortedSet<String> sortedIds = new TreeSet<>(resourceIds);
+        for (String resourceId : sortedIds) {
+            if (!jdbcTemplate.queryForList(LOCK_SQL, String.class, resourceId).isEmpty()) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT_SQL, resourceId);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.queryForList(LOCK_SQL, String.class, resourceId);
+            }
+        }
+    }
+}
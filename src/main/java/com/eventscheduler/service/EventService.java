@@ -1,16 +1,32 @@
 package com.eventscheduler.service;
 
+import com.eventscheduler.dto.ConflictingEventDto;
+import com.eventscheduler.dto.EventBatchResultDto;
 import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.EventPageDto;
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.dto.TimeSlotDto;
+import com.eventscheduler.dto.VersionedEventDto;
+import com.eventscheduler.exception.BadRequestException;
 import com.eventscheduler.exception.ConflictException;
 import com.eventscheduler.mapper.EventMapper;
 import com.eventscheduler.model.Event;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class EventService {
@@ -20,49 +36,337 @@ public class EventService {
     private final EventMapper eventMapper;
     private final EventQueryService eventQueryService;
     private final EventPersistenceService eventPersistenceService;
+    private final EventAdmissionLocks eventAdmissionLocks;
+    private final EventResourceLocks eventResourceLocks;
+    private final EventQueryCache eventQueryCache;
+    private final EventMetrics eventMetrics;
+    private final EventAvailabilityService eventAvailabilityService;
+    private final EventTimeline eventTimeline;
+    private final EventOccupancyRollups eventOccupancyRollups;
 
     @Autowired
     public EventService(EventValidator eventValidator,
                         EventConflictService eventConflictService,
                         EventMapper eventMapper,
                         EventQueryService eventQueryService,
-                        EventPersistenceService eventPersistenceService) {
+                        EventPersistenceService eventPersistenceService,
+                        EventAdmissionLocks eventAdmissionLocks,
+                        EventResourceLocks eventResourceLocks,
+                        EventQueryCache eventQueryCache,
+                        EventMetrics eventMetrics,
+                        EventAvailabilityService eventAvailabilityService,
+                        EventTimeline eventTimeline,
+                        EventOccupancyRollups eventOccupancyRollups) {
         this.eventValidator = eventValidator;
         this.eventConflictService = eventConflictService;
         this.eventMapper = eventMapper;
         this.eventQueryService = eventQueryService;
         this.eventPersistenceService = eventPersistenceService;
+        this.eventAdmissionLocks = eventAdmissionLocks;
+        this.eventResourceLocks = eventResourceLocks;
+        this.eventQueryCache = eventQueryCache;
+        this.eventMetrics = eventMetrics;
+        this.eventAvailabilityService = eventAvailabilityService;
+        this.eventTimeline = eventTimeline;
+        this.eventOccupancyRollups = eventOccupancyRollups;
     }
 
     @Transactional
     public EventDto createEvent(EventDto eventDto) {
-        eventValidator.validateStartAndEndTime(eventDto.getStartTime(), eventDto.getEndTime());
-        if (eventConflictService.hasConflict(eventDto)) {
-            throw new ConflictException("The event conflicts with an existing event.");
+        Timer.Sample sample = eventMetrics.startTimer();
+        try {
+            EventDto createdEvent = admitEvent(eventDto);
+            eventMetrics.recordCreate(sample, EventMetrics.OUTCOME_CREATED);
+            return createdEvent;
+        } catch (BadRequestException e) {
+            eventMetrics.recordCreate(sample, EventMetrics.OUTCOME_REJECTED);
+            throw e;
+        } catch (ConflictException e) {
+            eventMetrics.recordCreate(sample, EventMetrics.OUTCOME_CONFLICT);
+            throw e;
+        } catch (RuntimeException e) {
+            eventMetrics.recordCreate(sample, EventMetrics.OUTCOME_ERROR);
+            throw e;
+        }
+    }
+
+    private EventDto admitEvent(EventDto eventDto) {
+        eventMetrics.recordPhase(EventMetrics.PHASE_VALIDATION, () -> {
+            eventValidator.validateStartAndEndTime(eventDto.getStartTime(), eventDto.getEndTime());
+            eventValidator.validateRecurrence(eventDto);
+        });
+        // A recurring event locks its whole span, up to every stripe
+        String resourceId = Event.resourceIdOrDefault(eventDto.getResourceId());
+        LocalDateTime lastEndTime = eventDto.getRecurrence() == null
+                ? eventDto.getEndTime()
+                : eventMapper.toEntity(eventDto).lastOccurrenceEnd();
+        eventMetrics.recordPhase(EventMetrics.PHASE_ADMISSION, () ->
+                eventAdmissionLocks.lockForTransaction(resourceId, eventDto.getStartTime(), lastEndTime));
+        // Conflicts known to this instance's index are refused without touching the database
+        Optional<ConflictingEventDto> conflict = eventMetrics.recordPhase(EventMetrics.PHASE_CONFLICT_CHECK, () ->
+                eventConflictService.findIndexedConflict(eventDto));
+        if (conflict.isEmpty()) {
+            // Events of other instances are only seen in the database, read under the resource's lock row
+            eventMetrics.recordPhase(EventMetrics.PHASE_ADMISSION, () -> eventResourceLocks.lock(List.of(resourceId)));
+            conflict = eventMetrics.recordPhase(EventMetrics.PHASE_CONFLICT_CHECK, () ->
+                    eventConflictService.findStoredConflict(eventDto));
+        }
+        if (conflict.isPresent()) {
+            throw new ConflictException("The event conflicts with existing event '" + conflict.get().getName()
+                    + "' (id " + conflict.get().getId() + ").");
         }
 
         Event event = eventMapper.toEntity(eventDto);
-        Event savedEvent = eventPersistenceService.saveEvent(event);
+        Event savedEvent = eventMetrics.recordPhase(EventMetrics.PHASE_PERSISTENCE, () ->
+                eventPersistenceService.saveEvent(event));
         return eventMapper.toEventDto(savedEvent);
     }
 
+    /**
+     * Creates a batch of events, accepting every item that is valid and does not conflict
+     * with a stored event or with an earlier-starting item of the same batch. Items only
+     * conflict within their resource, so each resource is checked with its own range query.
+     *
+     * @param eventDtos events to create
+     * @return one result per item, in the order the items were given
+     */
+    @Transactional
+    public List<EventBatchResultDto> createEvents(List<EventDto> eventDtos) {
+        EventBatchResultDto[] results = new EventBatchResultDto[eventDtos.size()];
+        List<Integer> candidatePositions = new ArrayList<>();
+        List<EventDto> candidates = new ArrayList<>();
+        for (int i = 0; i < eventDtos.size(); i++) {
+            EventDto eventDto = eventDtos.get(i);
+            try {
+                eventValidator.validateEvent(eventDto);
+                if (eventDto.getRecurrence() != null) {
+                    throw new BadRequestException("Recurring events must be created one at a time.");
+                }
+                candidatePositions.add(i);
+                candidates.add(eventDto);
+            } catch (BadRequestException e) {
+                results[i] = batchResult(i, EventBatchResultDto.Status.INVALID, eventDto, e.getMessage());
+            }
+        }
+        eventMetrics.recordOutcome(EventMetrics.OUTCOME_REJECTED, eventDtos.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        eventAdmissionLocks.lockForTransaction(candidates);
+        eventResourceLocks.lock(resourceIdsOf(candidates));
+        BitSet conflicts = findBatchConflicts(candidates);
+        eventMetrics.recordOutcome(EventMetrics.OUTCOME_CONFLICT, conflicts.cardinality());
+
+        List<Integer> acceptedPositions = new ArrayList<>();
+        List<Event> acceptedEvents = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            int position = candidatePositions.get(i);
+            if (conflicts.get(i)) {
+                results[position] = batchResult(position, EventBatchResultDto.Status.CONFLICT, candidates.get(i),
+                        "The event conflicts with an existing event.");
+            } else {
+                acceptedPositions.add(position);
+                acceptedEvents.add(eventMapper.toEntity(candidates.get(i)));
+            }
+        }
+
+        if (!acceptedEvents.isEmpty()) {
+            List<Event> savedEvents = eventPersistenceService.saveEvents(acceptedEvents);
+            for (int i = 0; i < savedEvents.size(); i++) {
+                int position = acceptedPositions.get(i);
+                results[position] = batchResult(position, EventBatchResultDto.Status.CREATED,
+                        eventMapper.toEventDto(savedEvents.get(i)), null);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Creates queued events in one transaction, resolving conflicts in the order the events
+     * were given: an event is refused when it overlaps a stored event or an earlier accepted
+     * event of its resource. Unlike {@link #createEvents(List)}, the first arrival wins rather
+     * than the earliest start, like it would with one transaction per event.
+     *
+     * @param eventDtos single events in arrival order
+     * @return one result per item, in the order the items were given
+     */
+    @Transactional
+    public List<EventBatchResultDto> createEventsInOrder(List<EventDto> eventDtos) {
+        EventBatchResultDto[] results = new EventBatchResultDto[eventDtos.size()];
+        List<Integer> candidatePositions = new ArrayList<>();
+        for (int i = 0; i < eventDtos.size(); i++) {
+            EventDto eventDto = eventDtos.get(i);
+            try {
+                eventValidator.validateStartAndEndTime(eventDto.getStartTime(), eventDto.getEndTime());
+                if (eventDto.getRecurrence() != null) {
+                    throw new BadRequestException("Recurring events must be created one at a time.");
+                }
+                candidatePositions.add(i);
+            } catch (BadRequestException e) {
+                results[i] = batchResult(i, EventBatchResultDto.Status.INVALID, eventDto, e.getMessage());
+            }
+        }
+        if (candidatePositions.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        List<EventDto> candidates = candidatePositions.stream().map(eventDtos::get).toList();
+        eventAdmissionLocks.lockForTransaction(candidates);
+        eventResourceLocks.lock(resourceIdsOf(candidates));
+        Map<String, List<EventDto>> acceptedByResource = new LinkedHashMap<>();
+        List<Integer> acceptedPositions = new ArrayList<>();
+        List<Event> acceptedEvents = new ArrayList<>();
+        for (int position : candidatePositions) {
+            EventDto candidate = eventDtos.get(position);
+            List<EventDto> accepted = acceptedByResource.computeIfAbsent(
+                    Event.resourceIdOrDefault(candidate.getResourceId()), resourceId -> new ArrayList<>());
+            Optional<ConflictingEventDto> conflict = eventConflictService.findIndexedConflict(candidate)
+                    .or(() -> eventConflictService.findStoredConflict(candidate));
+            if (conflict.isPresent()) {
+                results[position] = batchResult(position, EventBatchResultDto.Status.CONFLICT, candidate,
+                        "The event conflicts with existing event '" + conflict.get().getName()
+                                + "' (id " + conflict.get().getId() + ").");
+            } else if (accepted.stream().anyMatch(earlier -> overlaps(earlier, candidate))) {
+                results[position] = batchResult(position, EventBatchResultDto.Status.CONFLICT, candidate,
+                        "The event conflicts with an event created just before it.");
+            } else {
+                accepted.add(candidate);
+                acceptedPositions.add(position);
+                acceptedEvents.add(eventMapper.toEntity(candidate));
+            }
+        }
+
+        if (!acceptedEvents.isEmpty()) {
+            List<Event> savedEvents = eventPersistenceService.saveEvents(acceptedEvents);
+            for (int i = 0; i < savedEvents.size(); i++) {
+                int position = acceptedPositions.get(i);
+                results[position] = batchResult(position, EventBatchResultDto.Status.CREATED,
+                        eventMapper.toEventDto(savedEvents.get(i)), null);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private static List<String> resourceIdsOf(List<EventDto> eventDtos) {
+        return eventDtos.stream().map(eventDto -> Event.resourceIdOrDefault(eventDto.getResourceId())).toList();
+    }
+
+    private static boolean overlaps(EventDto first, EventDto second) {
+        return first.getStartTime().isBefore(second.getEndTime()) && second.getStartTime().isBefore(first.getEndTime());
+    }
+
+    private BitSet findBatchConflicts(List<EventDto> candidates) {
+        Map<String, List<Integer>> indexesByResource = new LinkedHashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            indexesByResource.computeIfAbsent(Event.resourceIdOrDefault(candidates.get(i).getResourceId()),
+                    resourceId -> new ArrayList<>()).add(i);
+        }
+        BitSet conflicts = new BitSet(candidates.size());
+        indexesByResource.forEach((resourceId, indexes) -> {
+            List<EventDto> group = indexes.stream().map(candidates::get).toList();
+            LocalDateTime spanStart = group.stream().map(EventDto::getStartTime)
+                    .min(Comparator.naturalOrder()).orElseThrow();
+            LocalDateTime spanEnd = group.stream().map(EventDto::getEndTime)
+                    .max(Comparator.naturalOrder()).orElseThrow();
+            List<Event> storedEvents = eventQueryService.findEventsInRange(resourceId, spanStart, spanEnd);
+            BitSet groupConflicts = eventConflictService.findBatchConflicts(group, storedEvents);
+            groupConflicts.stream().forEach(i -> conflicts.set(indexes.get(i)));
+        });
+        return conflicts;
+    }
+
     public List<EventDto> getAllEvents() {
         List<Event> events = eventQueryService.getAllEvents();
         return eventMapper.toEventDtoList(events);
     }
 
-    public List<EventDto> getEvents(LocalDateTime startTime, LocalDateTime endTime) {
+    /**
+     * Returns the events in the range, of one resource or of all resources when
+     * {@code resourceId} is null, or every event when no range is given. Ranges are read
+     * from the in-memory timeline when it can answer them, and from the database otherwise.
+     */
+    public List<EventDto> getEvents(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime != null && endTime != null) {
             eventValidator.validateStartAndEndTime(startTime, endTime);
-            List<Event> events = eventQueryService.findEventsInRange(startTime, endTime);
-            return eventMapper.toEventDtoList(events);
+            return eventQueryCache.getInWindow(resourceId, startTime, endTime, () ->
+                    eventTimeline.findInRange(resourceId, startTime, endTime)
+                            .orElseGet(() -> eventQueryService.findEventDtosInRange(resourceId, startTime, endTime)));
         } else {
             return getAllEvents();
         }
     }
 
+    /**
+     * Returns one page of events ordered by start time and id.
+     *
+     * @param after cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of events in the page
+     * @return the page and the cursor for the next one, which is null on the last page
+     */
+    public EventPageDto getEventsPage(String after, int limit) {
+        EventCursor cursor = after == null ? null : EventCursor.decode(after);
+        // One extra row tells us whether another page follows
+        List<Event> events = eventQueryService.getEventsPage(cursor, limit + 1);
+        boolean hasMore = events.size() > limit;
+        List<Event> page = hasMore ? events.subList(0, limit) : events;
+        return EventPageDto.builder()
+                .events(eventMapper.toEventDtoList(page))
+                .nextCursor(hasMore ? EventCursor.of(page.get(limit - 1)).encode() : null)
+                .build();
+    }
+
+    public void streamAllEvents(Consumer<EventDto> consumer) {
+        eventQueryService.streamAllEvents(event -> consumer.accept(eventMapper.toEventDto(event)));
+    }
+
+    /**
+     * Hands the events in the range, of one resource or of all resources when
+     * {@code resourceId} is null, to the consumer as they are read from the database.
+     */
+    public void streamEvents(String resourceId, LocalDateTime startTime, LocalDateTime endTime,
+                             Consumer<EventDto> consumer) {
+        eventValidator.validateStartAndEndTime(startTime, endTime);
+        eventQueryService.streamEventDtosInRange(resourceId, startTime, endTime, consumer);
+    }
+
+    public List<TimeSlotDto> findFreeSlots(String resourceId, LocalDateTime from, LocalDateTime to,
+                                           Duration minDuration, int limit) {
+        eventValidator.validateStartAndEndTime(from, to);
+        return eventAvailabilityService.findFreeSlots(Event.resourceIdOrDefault(resourceId), from, to,
+                minDuration, limit);
+    }
+
+    /**
+     * Returns the event count and booked minutes per hour or day bucket between from and to,
+     * of one resource or of all resources when resourceId is null, read from the rollups.
+     */
+    public List<OccupancyBucketDto> getOccupancy(String resourceId, LocalDateTime from, LocalDateTime to,
+                                                 String granularity) {
+        eventValidator.validateStartAndEndTime(from, to);
+        return eventOccupancyRollups.getOccupancy(resourceId, from, to, granularity);
+    }
+
     public Optional<EventDto> getEventById(Long id) {
-        Optional<Event> eventOpt = eventQueryService.getEventById(id);
-        return eventOpt.map(eventMapper::toEventDto);
+        return getVersionedEventById(id).map(VersionedEventDto::getEvent);
+    }
+
+    /**
+     * Returns the event with the time it was last written. Cached events are returned
+     * without a database read, which lets conditional GETs be answered from memory.
+     */
+    public Optional<VersionedEventDto> getVersionedEventById(Long id) {
+        return eventQueryCache.getById(id, key -> eventQueryService.getEventById(key)
+                .map(event -> new VersionedEventDto(eventMapper.toEventDto(event), event.getUpdatedAt())));
+    }
+
+    private EventBatchResultDto batchResult(int index, EventBatchResultDto.Status status,
+                                            EventDto event, String message) {
+        return EventBatchResultDto.builder()
+                .index(index)
+                .status(status)
+                .event(event)
+                .message(message)
+                .build();
     }
 }
\ No newline at end of file
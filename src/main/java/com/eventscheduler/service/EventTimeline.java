@@ -0,0 +1,431 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Columnar in-memory copy of the events table for time range reads, so that the common
+ * dashboard query is answered without a database round trip or per-row entities.
+ * <p>
+ * Single events are kept in parallel primitive arrays sorted by start: ids, start and end
+ * as epoch microseconds, the precision of the timestamp columns, and indexes into interned
+ * tables of names and resources, 32 bytes per event plus each distinct name once. Names and
+ * resources no longer used are released when events are archived. A range lookup is a
+ * binary search for the first event that can still reach the range start, given the longest
+ * stored event, followed by a scan up to the range end. Recurring events are few and kept
+ * as entities, expanded per query.
+ * <p>
+ * Readers use an immutable snapshot; every commit publishes a new one merged from the
+ * previous snapshot, so writes cost a copy of the arrays. The timeline is meant for
+ * read-heavy deployments and is disabled by default. It only covers the hot table, so ranges
+ * reaching before the archive horizon, and all reads while it is cold or stale, go to the
+ * database. A commit that cannot be merged makes it stale; it is then rebuilt from the table
+ * by a scheduled job, and reads go to the database in the meantime.
+ */
+@Slf4j
+@Component
+public class EventTimeline {
+
+    private static final long MICROS_PER_SECOND = 1_000_000;
+
+    private final EventRepository eventRepository;
+    private final EventArchiver eventArchiver;
+    private final EventMapper eventMapper;
+    private final EventMetrics eventMetrics;
+    private final boolean enabled;
+
+    // Interned names and resources, appended under the monitor and published with the snapshot
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final Map<String, Integer> resourceIds = new HashMap<>();
+    private String[] names = new String[16];
+    private String[] resources = new String[16];
+
+    private volatile Snapshot snapshot;
+    private volatile boolean rebuildPending;
+
+    @Autowired
+    public EventTimeline(EventRepository eventRepository, EventArchiver eventArchiver, EventMapper eventMapper,
+                         EventMetrics eventMetrics,
+                         @Value("${event-scheduler.timeline.enabled:false}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.eventArchiver = eventArchiver;
+        this.eventMapper = eventMapper;
+        this.eventMetrics = eventMetrics;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Loads the timeline from the events table. Events committed while it loads are merged
+     * through {@link #onEventsCreated(EventsCreatedEvent)}, which skips those already loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        snapshot = null;
+        rebuildPending = false;
+        nameIds.clear();
+        resourceIds.clear();
+        names = new String[16];
+        resources = new String[16];
+        try {
+            snapshot = merge(Snapshot.EMPTY, eventRepository.findAll());
+            log.info("Event timeline loaded with {} events in {} bytes", snapshot.size, footprintBytes());
+        } catch (RuntimeException e) {
+            markStale(e);
+        }
+    }
+
+    /**
+     * Rebuilds the timeline after a commit could not be merged into it.
+     */
+    @Scheduled(fixedDelayString = "${event-scheduler.timeline.rebuild-delay-ms:10000}")
+    public void rebuildIfStale() {
+        if (rebuildPending) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Runs before the other listeners, so that windows cached or versions advanced after a
+     * commit are never served from a timeline that does not have the commit yet.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventsCreated(EventsCreatedEvent createdEvent) {
+        if (snapshot != null) {
+            try {
+                snapshot = merge(snapshot, createdEvent.getEvents());
+            } catch (RuntimeException e) {
+                markStale(e);
+            }
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventsArchived(EventsArchivedEvent archivedEvent) {
+        if (snapshot != null) {
+            snapshot = reintern(snapshot.without(archivedEvent.getEvents().stream().map(Event::getId)
+                    .collect(HashSet::new, Set::add, Set::addAll)));
+        }
+    }
+
+    /**
+     * Returns the occurrences in the range, bounds inclusive like the range query, of one
+     * resource or of all resources when {@code resourceId} is null. Empty when the timeline
+     * cannot answer and the database has to be read instead.
+     */
+    public Optional<List<EventDto>> findInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        Snapshot current = snapshot;
+        if (current == null || startTime.isBefore(eventArchiver.archiveHorizon())) {
+            return Optional.empty();
+        }
+        return Optional.of(eventMetrics.recordQuery(EventMetrics.QUERY_RANGE_TIMELINE, () ->
+                current.findInRange(resourceId, startTime, endTime, eventMapper)));
+    }
+
+    /**
+     * Approximate heap held by the timeline: the arrays sized to the stored events and the
+     * distinct names and resources.
+     */
+    public synchronized long footprintBytes() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return 0;
+        }
+        // Arrays, plus about 40 bytes of object headers and fields per interned string
+        long bytes = (long) current.ids.length * Snapshot.BYTES_PER_EVENT;
+        for (int i = 0; i < nameIds.size(); i++) {
+            bytes += 40 + names[i].length();
+        }
+        for (int i = 0; i < resourceIds.size(); i++) {
+            bytes += 40 + resources[i].length();
+        }
+        return bytes;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.size + current.series.size();
+    }
+
+    private void markStale(RuntimeException e) {
+        log.warn("Event timeline is stale, range reads will use the database until it is rebuilt", e);
+        snapshot = null;
+        rebuildPending = true;
+    }
+
+    /**
+     * Returns a snapshot with the events added.
+     */
+    private Snapshot merge(Snapshot base, List<Event> events) {
+        List<Event> added = new ArrayList<>();
+        List<Event> series = new ArrayList<>(base.series);
+        for (Event event : events) {
+            if (event.isRecurring()) {
+                if (series.stream().noneMatch(stored -> Objects.equals(stored.getId(), event.getId()))) {
+                    series.add(event);
+                }
+            } else if (!base.contains(event.getId(), micros(event.getStartTime()))) {
+                added.add(event);
+            }
+        }
+        added.sort(Comparator.comparing(Event::getStartTime));
+
+        int size = base.size + added.size();
+        long[] ids = new long[size];
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        int[] nameIndexes = new int[size];
+        int[] resourceIndexes = new int[size];
+        long maxDuration = base.maxDuration;
+        int from = 0;
+        int to = 0;
+        for (Event event : added) {
+            long start = micros(event.getStartTime());
+            // Copy the stored events starting no later than the new one, then insert it
+            int until = base.upperBound(start);
+            int count = until - from;
+            System.arraycopy(base.ids, from, ids, to, count);
+            System.arraycopy(base.starts, from, starts, to, count);
+            System.arraycopy(base.ends, from, ends, to, count);
+            System.arraycopy(base.nameIndexes, from, nameIndexes, to, count);
+            System.arraycopy(base.resourceIndexes, from, resourceIndexes, to, count);
+            from = until;
+            to += count;
+            ids[to] = event.getId();
+            starts[to] = start;
+            ends[to] = micros(event.getEndTime());
+            nameIndexes[to] = intern(event.getName(), nameIds, true);
+            resourceIndexes[to] = intern(event.getResourceId(), resourceIds, false);
+            maxDuration = Math.max(maxDuration, ends[to] - start);
+            to++;
+        }
+        int rest = base.size - from;
+        System.arraycopy(base.ids, from, ids, to, rest);
+        System.arraycopy(base.starts, from, starts, to, rest);
+        System.arraycopy(base.ends, from, ends, to, rest);
+        System.arraycopy(base.nameIndexes, from, nameIndexes, to, rest);
+        System.arraycopy(base.resourceIndexes, from, resourceIndexes, to, rest);
+        return new Snapshot(size, ids, starts, ends, nameIndexes, resourceIndexes, names, resources,
+                Map.copyOf(resourceIds), maxDuration, List.copyOf(series));
+    }
+
+    /**
+     * Returns the snapshot with the name and resource tables rebuilt from the events it still
+     * holds, so that those of archived events can be collected.
+     */
+    private Snapshot reintern(Snapshot base) {
+        nameIds.clear();
+        resourceIds.clear();
+        names = new String[16];
+        resources = new String[16];
+        int[] nameIndexes = new int[base.size];
+        int[] resourceIndexes = new int[base.size];
+        for (int i = 0; i < base.size; i++) {
+            nameIndexes[i] = intern(base.names[base.nameIndexes[i]], nameIds, true);
+            resourceIndexes[i] = intern(base.resources[base.resourceIndexes[i]], resourceIds, false);
+        }
+        return new Snapshot(base.size, base.ids, base.starts, base.ends, nameIndexes, resourceIndexes, names,
+                resources, Map.copyOf(resourceIds), base.maxDuration, base.series);
+    }
+
+    private int intern(String value, Map<String, Integer> ids, boolean isName) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        int next = ids.size();
+        if (isName) {
+            names = append(names, next, value);
+        } else {
+            resources = append(resources, next, value);
+        }
+        ids.put(value, next);
+        return next;
+    }
+
+    private static String[] append(String[] table, int index, String value) {
+        String[] target = index < table.length ? table : Arrays.copyOf(table, table.length * 2);
+        target[index] = value;
+        return target;
+    }
+
+    /**
+     * Epoch microseconds of the time, rounded half up like the database rounds it to the
+     * precision of its timestamp columns.
+     */
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + (time.getNano() + 500) / 1000;
+    }
+
+    /**
+     * Epoch microseconds of the last whole microsecond at or before the time.
+     */
+    private static long floorMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / 1000;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000, ZoneOffset.UTC);
+    }
+
+    private static final class Snapshot {
+        static final int BYTES_PER_EVENT = 3 * Long.BYTES + 2 * Integer.BYTES;
+        static final Snapshot EMPTY = new Snapshot(0, new long[0], new long[0], new long[0], new int[0], new int[0],
+                new String[0], new String[0], Map.of(), 0, List.of());
+
+        final int size;
+        final long[] ids;
+        final long[] starts;
+        final long[] ends;
+        final int[] nameIndexes;
+        final int[] resourceIndexes;
+        // Shared with later snapshots, which only append beyond the entries this one uses
+        final String[] names;
+        final String[] resources;
+        final Map<String, Integer> resourceIds;
+        final long maxDuration;
+        final List<Event> series;
+
+        Snapshot(int size, long[] ids, long[] starts, long[] ends, int[] nameIndexes, int[] resourceIndexes,
+                 String[] names, String[] resources, Map<String, Integer> resourceIds, long maxDuration,
+                 List<Event> series) {
+            this.size = size;
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.nameIndexes = nameIndexes;
+            this.resourceIndexes = resourceIndexes;
+            this.names = names;
+            this.resources = resources;
+            this.resourceIds = resourceIds;
+            this.maxDuration = maxDuration;
+            this.series = series;
+        }
+
+        List<EventDto> findInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime,
+                                   EventMapper eventMapper) {
+            int resource = -1;
+            if (resourceId != null) {
+                Integer id = resourceIds.get(resourceId);
+                resource = id != null ? id : -2;
+            }
+            // Stored times are whole microseconds, so the inclusive bounds round inwards
+            long from = startTime.getNano() % 1000 == 0 ? floorMicros(startTime) : floorMicros(startTime) + 1;
+            long to = floorMicros(endTime);
+            List<EventDto> events = new ArrayList<>();
+            for (int i = lowerBound(from - maxDuration), end = upperBound(to); i < end; i++) {
+                if (ends[i] >= from && (resource == -1 || resourceIndexes[i] == resource)) {
+                    events.add(new EventDto(ids[i], names[nameIndexes[i]], resources[resourceIndexes[i]],
+                            time(starts[i]), time(ends[i])));
+                }
+            }
+            for (Event event : series) {
+                if (resourceId == null || resourceId.equals(event.getResourceId())) {
+                    EventOccurrences.expand(event, startTime, endTime).forEach(occurrence ->
+                            events.add(eventMapper.toEventDto(occurrence)));
+                }
+            }
+            return events;
+        }
+
+        boolean contains(Long id, long start) {
+            for (int i = lowerBound(start); i < size && starts[i] == start; i++) {
+                if (id != null && ids[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Snapshot without(Set<Long> removedIds) {
+            int kept = 0;
+            long[] keptIds = new long[size];
+            long[] keptStarts = new long[size];
+            long[] keptEnds = new long[size];
+            int[] keptNames = new int[size];
+            int[] keptResources = new int[size];
+            for (int i = 0; i < size; i++) {
+                if (!removedIds.contains(ids[i])) {
+                    keptIds[kept] = ids[i];
+                    keptStarts[kept] = starts[i];
+                    keptEnds[kept] = ends[i];
+                    keptNames[kept] = nameIndexes[i];
+                    keptResources[kept] = resourceIndexes[i];
+                    kept++;
+                }
+            }
+            return new Snapshot(kept, Arrays.copyOf(keptIds, kept), Arrays.copyOf(keptStarts, kept),
+                    Arrays.copyOf(keptEnds, kept), Arrays.copyOf(keptNames, kept),
+                    Arrays.copyOf(keptResources, kept), names, resources, resourceIds, maxDuration,
+                    series.stream().filter(event -> !removedIds.contains(event.getId())).toList());
+        }
+
+        /**
+         * Index of the first event starting at or after {@code start}.
+         */
+        int lowerBound(long start) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < start) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Index of the first event starting after {@code start}.
+         */
+        int upperBound(long start) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] <= start) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,15 +1,73 @@
 package com.eventscheduler.service;
 
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.RecurrenceDto;
 import com.eventscheduler.exception.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Component
 public class EventValidator {
+
+    private final Validator validator;
+
+    @Autowired
+    public EventValidator(Validator validator) {
+        this.validator = validator;
+    }
+
     public void validateStartAndEndTime(LocalDateTime startTime, LocalDateTime endTime) {
         if (!startTime.isBefore(endTime)) {
             throw new BadRequestException("Start time must be before end time.");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks that a recurring event ends and that its occurrences do not overlap each other.
+     */
+    public void validateRecurrence(EventDto eventDto) {
+        RecurrenceDto recurrence = eventDto.getRecurrence();
+        if (recurrence == null) {
+            return;
+        }
+        if (recurrence.getFrequency() == null) {
+            throw new BadRequestException("Recurrence frequency must not be null");
+        }
+        if (recurrence.getInterval() != null && recurrence.getInterval() < 1) {
+            throw new BadRequestException("Recurrence interval must be at least 1");
+        }
+        if (recurrence.getCount() != null && recurrence.getCount() < 1) {
+            throw new BadRequestException("Recurrence count must be at least 1");
+        }
+        if (recurrence.getCount() == null && recurrence.getUntil() == null) {
+            throw new BadRequestException("Recurrence must set count or until.");
+        }
+        if (recurrence.getUntil() != null && recurrence.getUntil().isBefore(eventDto.getStartTime())) {
+            throw new BadRequestException("Recurrence until must not be before the start time.");
+        }
+        int interval = recurrence.getInterval() != null ? recurrence.getInterval() : 1;
+        Duration step = recurrence.getFrequency().step(interval);
+        if (Duration.between(eventDto.getStartTime(), eventDto.getEndTime()).compareTo(step) > 0) {
+            throw new BadRequestException("Event must not last longer than its recurrence interval.");
+        }
+    }
+
+    /**
+     * Applies the request body constraints of {@link EventDto} and the event rules to
+     * events that did not arrive through a validated request body, such as batch items.
+     */
+    public void validateEvent(EventDto eventDto) {
+        Set<ConstraintViolation<EventDto>> violations = validator.validate(eventDto);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.iterator().next().getMessage());
+        }
+        validateStartAndEndTime(eventDto.getStartTime(), eventDto.getEndTime());
+        validateRecurrence(eventDto);
+    }
+}
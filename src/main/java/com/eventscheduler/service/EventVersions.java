@@ -0,0 +1,110 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Versions of event list responses, one per resource, kept in {@code event_versions} and
+ * bumped in every transaction that creates or archives events of the resource. Conditional
+ * GETs compare a client's ETag with the current version, read with one primary key or
+ * aggregate query over a row per resource, instead of running the list query.
+ * <p>
+ * Versions live in the database, so every instance sharing it hands out the same ETag for
+ * the same state and sees the writes of the others. The table version is the sum of the
+ * resource versions, which grows with every commit whatever order concurrent commits finish
+ * in. A resource that never changed shares the table version. ETags carry the time the
+ * schema was created, so they never repeat after an in-memory database is recreated.
+ */
+@Component
+public class EventVersions {
+
+    public static final String BUMP_SQL =
+            "UPDATE event_versions SET version = version + 1, last_modified = ? WHERE resource_id = ?";
+    public static final String INSERT_SQL =
+            "INSERT INTO event_versions (resource_id, version, last_modified) VALUES (?, 1, ?)";
+
+    public record Version(String value, Instant lastModified) {
+        /**
+         * Strong ETag of a response at this version.
+         */
+        public String etag() {
+            return "\"" + value + "\"";
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Long epoch;
+
+    @Autowired
+    public EventVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Version of responses over all resources, or over one resource when it is given.
+     */
+    public Version current(String resourceId) {
+        if (resourceId != null) {
+            List<Version> versions = jdbcTemplate.query(
+                    "SELECT version, last_modified FROM event_versions WHERE resource_id = ?",
+                    (rs, rowNum) -> new Version(epoch() + "-r" + rs.getLong(1),
+                            toInstant(rs.getObject(2, LocalDateTime.class))),
+                    resourceId);
+            if (!versions.isEmpty()) {
+                return versions.get(0);
+            }
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(version), 0), MAX(last_modified) FROM event_versions",
+                (rs, rowNum) -> {
+                    LocalDateTime lastModified = rs.getObject(2, LocalDateTime.class);
+                    return new Version(epoch() + "-t" + rs.getLong(1),
+                            lastModified != null ? toInstant(lastModified) : Instant.ofEpochMilli(epoch()));
+                });
+    }
+
+    /**
+     * Bumps the versions of the resources of the events in the current transaction. Rows are
+     * bumped in resource order so that concurrent writers cannot deadlock on them, and a row
+     * inserted by a concurrent transaction is bumped instead.
+     */
+    public void bump(Collection<Event> events) {
+        LocalDateTime now = LocalDateTime.now();
+        SortedSet<String> resourceIds = new TreeSet<>();
+        events.forEach(event -> resourceIds.add(event.getResourceId()));
+        for (String resourceId : resourceIds) {
+            if (jdbcTemplate.update(BUMP_SQL, now, resourceId) > 0) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT_SQL, resourceId, now);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(BUMP_SQL, now, resourceId);
+            }
+        }
+    }
+
+    private long epoch() {
+        Long current = epoch;
+        if (current == null) {
+            current = jdbcTemplate.queryForObject("SELECT epoch FROM event_versions_epoch", Long.class);
+            epoch = current;
+        }
+        return current;
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
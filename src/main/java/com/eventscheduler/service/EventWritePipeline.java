@@ -0,0 +1,233 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventBatchResultDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.exception.ConflictException;
+import com.eventscheduler.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Funnels single-event creates through one writer thread that commits them in batches.
+ * <p>
+ * Callers put their event on a bounded queue and block until it has been committed, so
+ * {@code POST /events} answers exactly as before. The writer takes every event waiting, up
+ * to {@code max-batch-size}, resolves conflicts in arrival order and stores the accepted
+ * events in one transaction, so the commit cost, including the journal force when it is
+ * enabled, is paid once per batch instead of once per event. A full queue blocks callers
+ * until the writer catches up.
+ * <p>
+ * Callers wait at most {@code enqueue-timeout-ms} for room in the queue and
+ * {@code result-timeout-ms} for the commit, and are then refused with
+ * {@link ServiceUnavailableException}; an event still queued at that point is skipped, one
+ * already in a batch may still be created. Once the pipeline shuts down, or the writer
+ * thread dies, waiting and new callers are refused the same way.
+ * <p>
+ * When a batch transaction fails as a whole, for example because another instance claimed
+ * a slot first, its events are retried one transaction each so that only the offending
+ * event fails. Recurring events skip the queue and are created on the caller's thread.
+ */
+@Slf4j
+@Component
+public class EventWritePipeline {
+
+    private final EventService eventService;
+    private final EventMetrics eventMetrics;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long enqueueTimeoutMs;
+    private final long resultTimeoutMs;
+    private final BlockingQueue<PendingEvent> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public EventWritePipeline(EventService eventService,
+                              EventMetrics eventMetrics,
+                              MeterRegistry meterRegistry,
+                              @Value("${event-scheduler.write-pipeline.enabled:false}") boolean enabled,
+                              @Value("${event-scheduler.write-pipeline.queue-capacity:10000}") int queueCapacity,
+                              @Value("${event-scheduler.write-pipeline.max-batch-size:256}") int maxBatchSize,
+                              @Value("${event-scheduler.write-pipeline.enqueue-timeout-ms:1000}") long enqueueTimeoutMs,
+                              @Value("${event-scheduler.write-pipeline.result-timeout-ms:30000}") long resultTimeoutMs) {
+        this.eventService = eventService;
+        this.eventMetrics = eventMetrics;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.resultTimeoutMs = resultTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("events.pipeline.batch.size")
+                .description("Events committed together by the write pipeline")
+                .register(meterRegistry);
+        Gauge.builder("events.pipeline.queue.depth", queue, BlockingQueue::size)
+                .description("Events waiting for the write pipeline")
+                .register(meterRegistry);
+        this.writer = new Thread(this::run, "event-writer");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Creates the event and returns once it has been committed, like
+     * {@link EventService#createEvent(EventDto)}.
+     *
+     * @throws BadRequestException if the event is invalid
+     * @throws ConflictException   if the event overlaps a stored event or one queued before it
+     * @throws ServiceUnavailableException if the queue stays full, the commit takes too long or
+     *                                     the pipeline has stopped
+     */
+    public EventDto createEvent(EventDto eventDto) {
+        if (eventDto.getRecurrence() != null) {
+            return eventService.createEvent(eventDto);
+        }
+        if (!running) {
+            throw stopped();
+        }
+        PendingEvent pending = new PendingEvent(eventDto, eventMetrics.startTimer(), new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                eventMetrics.recordCreate(pending.sample(), EventMetrics.OUTCOME_ERROR);
+                throw new ServiceUnavailableException("The write pipeline is full, try again later.");
+            }
+            if (!running) {
+                // Stopped while queuing, possibly after the queue was drained
+                failQueued();
+            }
+            return pending.result().get(resultTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the event to be created", e);
+        } catch (TimeoutException e) {
+            ServiceUnavailableException timedOut =
+                    new ServiceUnavailableException("Timed out waiting for the event to be created.");
+            if (pending.result().completeExceptionally(timedOut)) {
+                eventMetrics.recordCreate(pending.sample(), EventMetrics.OUTCOME_ERROR);
+                throw timedOut;
+            }
+            // Completed by the writer in the meantime
+            return pending.result().join();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.interrupt();
+        failQueued();
+    }
+
+    private void run() {
+        List<PendingEvent> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, maxBatchSize - 1);
+                // Callers that timed out have been answered already
+                batch.removeIf(pending -> pending.result().isDone());
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                batchSizes.record(batch.size());
+                try {
+                    commit(batch);
+                } catch (RuntimeException e) {
+                    log.warn("Batch of {} events failed, retrying one at a time: {}", batch.size(), e.getMessage());
+                    batch.forEach(this::commitAlone);
+                }
+                batch.clear();
+            }
+        } finally {
+            // Also reached when an Error kills the writer, so that no caller waits for it
+            running = false;
+            batch.forEach(this::fail);
+            failQueued();
+        }
+    }
+
+    private void failQueued() {
+        List<PendingEvent> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(this::fail);
+    }
+
+    private void fail(PendingEvent pending) {
+        if (pending.result().completeExceptionally(stopped())) {
+            eventMetrics.recordCreate(pending.sample(), EventMetrics.OUTCOME_ERROR);
+        }
+    }
+
+    private static ServiceUnavailableException stopped() {
+        return new ServiceUnavailableException("The write pipeline has stopped.");
+    }
+
+    private void commit(List<PendingEvent> batch) {
+        List<EventBatchResultDto> results = eventService.createEventsInOrder(
+                batch.stream().map(PendingEvent::event).toList());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEvent pending = batch.get(i);
+            EventBatchResultDto result = results.get(i);
+            switch (result.getStatus()) {
+                case CREATED -> complete(pending, EventMetrics.OUTCOME_CREATED, result.getEvent(), null);
+                case CONFLICT -> complete(pending, EventMetrics.OUTCOME_CONFLICT, null,
+                        new ConflictException(result.getMessage()));
+                case INVALID -> complete(pending, EventMetrics.OUTCOME_REJECTED, null,
+                        new BadRequestException(result.getMessage()));
+            }
+        }
+    }
+
+    private void commitAlone(PendingEvent pending) {
+        try {
+            // Times and counts the outcome itself
+            pending.result().complete(eventService.createEvent(pending.event()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private void complete(PendingEvent pending, String outcome, EventDto created, RuntimeException failure) {
+        eventMetrics.recordCreate(pending.sample(), outcome);
+        if (failure != null) {
+            pending.result().completeExceptionally(failure);
+        } else {
+            pending.result().complete(created);
+        }
+    }
+
+    private record PendingEvent(EventDto event, Timer.Sample sample, CompletableFuture<EventDto> result) {
+    }
+}
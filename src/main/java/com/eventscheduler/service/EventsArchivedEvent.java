@@ -0,0 +1,18 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@link EventArchiver} for every batch of events moved to the archive.
+ * Listeners holding state about the events table should drop the events after the
+ * surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class EventsArchivedEvent {
+    private final List<Event> events;
+}
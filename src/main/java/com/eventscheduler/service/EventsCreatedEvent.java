@@ -0,0 +1,18 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@link EventPersistenceService} whenever events are saved.
+ * Listeners that keep in-memory state in step with the events table should
+ * react to it after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class EventsCreatedEvent {
+    private final List<Event> events;
+}
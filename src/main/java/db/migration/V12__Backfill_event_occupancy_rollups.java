@@ -0,0 +1,70 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fills {@code event_occupancy_rollups} from the single events stored and archived before it
+ * existed: each counts once in every hour and day bucket it overlaps, with its seconds in the
+ * bucket. Recurring events are not stored in the rows. The arithmetic is done here rather
+ * than in SQL, and kept here rather than taken from the application, so the migration keeps
+ * producing the rows of this schema version.
+ */
+public class V12__Backfill_event_occupancy_rollups extends BaseJavaMigration {
+
+    private static final ChronoUnit[] GRANULARITIES = {ChronoUnit.HOURS, ChronoUnit.DAYS};
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        // Event count and booked seconds per row
+        Map<Bucket, long[]> totals = new HashMap<>();
+        for (String table : new String[]{"events", "events_archive"}) {
+            try (Statement select = connection.createStatement();
+                 ResultSet rows = select.executeQuery("SELECT resource_id, start_time, end_time FROM " + table
+                         + " WHERE recurrence_frequency IS NULL")) {
+                while (rows.next()) {
+                    String resourceId = rows.getString("resource_id");
+                    LocalDateTime start = rows.getObject("start_time", LocalDateTime.class);
+                    LocalDateTime end = rows.getObject("end_time", LocalDateTime.class);
+                    for (ChronoUnit unit : GRANULARITIES) {
+                        LocalDateTime bucket = start.truncatedTo(unit);
+                        for (; bucket.isBefore(end); bucket = bucket.plus(1, unit)) {
+                            LocalDateTime from = start.isAfter(bucket) ? start : bucket;
+                            LocalDateTime to = end.isBefore(bucket.plus(1, unit)) ? end : bucket.plus(1, unit);
+                            long[] row = totals.computeIfAbsent(new Bucket(resourceId,
+                                    unit == ChronoUnit.HOURS ? "HOUR" : "DAY", bucket), key -> new long[2]);
+                            row[0]++;
+                            row[1] += Duration.between(from, to).toSeconds();
+                        }
+                    }
+                }
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO event_occupancy_rollups "
+                + "(resource_id, granularity, bucket_start, event_count, booked_seconds) VALUES (?, ?, ?, ?, ?)")) {
+            for (Map.Entry<Bucket, long[]> row : totals.entrySet()) {
+                insert.setString(1, row.getKey().resourceId());
+                insert.setString(2, row.getKey().granularity());
+                insert.setObject(3, row.getKey().start());
+                insert.setLong(4, row.getValue()[0]);
+                insert.setLong(5, row.getValue()[1]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private record Bucket(String resourceId, String granularity, LocalDateTime start) {
+    }
+}
@@ -0,0 +1,31 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Creates the pooled sequence for event ids, so that Hibernate can batch inserts, starting
+ * past the events already stored. Hibernate's pooled optimizer uses each fetched value as the
+ * top of a block of {@link #INCREMENT} ids, so the first value is the largest stored id plus
+ * one block, and the first block starts right after it.
+ */
+public class V3__Create_event_id_sequence extends BaseJavaMigration {
+
+    private static final long INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM events")) {
+                rows.next();
+                maxId = rows.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE events_seq START WITH " + (maxId + INCREMENT)
+                    + " INCREMENT BY " + INCREMENT);
+        }
+    }
+}
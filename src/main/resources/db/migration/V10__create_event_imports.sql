@@ -0,0 +1,14 @@
+-- Progress of bulk imports. An import commits one chunk at a time and records the last line
+-- of the committed chunk here, so a failed import can be resumed after that line.
+CREATE TABLE event_imports
+(
+    id             VARCHAR(64) PRIMARY KEY,
+    format         VARCHAR(10) NOT NULL,
+    lines_read     BIGINT      NOT NULL,
+    created_count  BIGINT      NOT NULL,
+    invalid_count  BIGINT      NOT NULL,
+    conflict_count BIGINT      NOT NULL,
+    completed      BOOLEAN     NOT NULL,
+    created_at     TIMESTAMP   NOT NULL,
+    updated_at     TIMESTAMP   NOT NULL
+);
@@ -0,0 +1,13 @@
+-- Event counts and booked time per resource and hour or day bucket, kept up to date by
+-- EventOccupancyRollups in the transaction that stores each event. Archived events stay counted.
+CREATE TABLE event_occupancy_rollups
+(
+    resource_id    VARCHAR(64) NOT NULL,
+    granularity    VARCHAR(4)  NOT NULL,
+    bucket_start   TIMESTAMP   NOT NULL,
+    event_count    BIGINT      NOT NULL,
+    booked_seconds BIGINT      NOT NULL,
+    PRIMARY KEY (resource_id, granularity, bucket_start)
+);
+
+CREATE INDEX idx_event_occupancy_rollups_bucket ON event_occupancy_rollups (granularity, bucket_start);
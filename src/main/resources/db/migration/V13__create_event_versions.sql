@@ -0,0 +1,21 @@
+-- Versions of event list responses, one row per resource, bumped by EventVersions in every
+-- transaction that creates or archives events of the resource.
+CREATE TABLE event_versions
+(
+    resource_id   VARCHAR(64) PRIMARY KEY,
+    version       BIGINT      NOT NULL,
+    last_modified TIMESTAMP   NOT NULL
+);
+
+-- When this database was created, so ETags never repeat after it is recreated
+CREATE TABLE event_versions_epoch
+(
+    epoch BIGINT NOT NULL
+);
+
+INSERT INTO event_versions_epoch (epoch)
+VALUES (CAST(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP) * 1000 AS BIGINT));
+
+INSERT INTO event_versions (resource_id, version, last_modified)
+SELECT resource_id, 1, LOCALTIMESTAMP
+FROM (SELECT resource_id FROM events UNION SELECT resource_id FROM events_archive) resources;
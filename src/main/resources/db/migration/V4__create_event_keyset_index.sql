@@ -0,0 +1,2 @@
+-- Supports keyset pagination ordered by (start_time, id)
+CREATE INDEX idx_event_start_id ON events (start_time, id);
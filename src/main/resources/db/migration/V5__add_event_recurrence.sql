@@ -0,0 +1,7 @@
+ALTER TABLE events ADD COLUMN recurrence_frequency VARCHAR(10);
+ALTER TABLE events ADD COLUMN recurrence_interval INT;
+ALTER TABLE events ADD COLUMN recurrence_count INT;
+ALTER TABLE events ADD COLUMN recurrence_until TIMESTAMP;
+ALTER TABLE events ADD COLUMN series_end_time TIMESTAMP;
+
+CREATE INDEX idx_event_series_end ON events (series_end_time);
@@ -0,0 +1,3 @@
+ALTER TABLE events ADD COLUMN resource_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+CREATE INDEX idx_event_resource_time_range ON events (resource_id, start_time, end_time);
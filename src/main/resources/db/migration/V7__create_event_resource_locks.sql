@@ -0,0 +1,7 @@
+-- One row per resource, locked with SELECT ... FOR UPDATE by EventResourceLocks in every
+-- transaction that creates events of the resource, so creates of one resource are checked
+-- against the stored events one at a time across every instance.
+CREATE TABLE event_resource_locks
+(
+    resource_id VARCHAR(64) PRIMARY KEY
+);
@@ -0,0 +1,3 @@
+INSERT INTO event_resource_locks (resource_id)
+SELECT DISTINCT resource_id
+FROM events;
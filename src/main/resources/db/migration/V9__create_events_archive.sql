@@ -0,0 +1,21 @@
+-- Events that ended before the archive horizon, moved out of events by EventArchiver.
+-- Ids are kept, so archived events keep their identity.
+CREATE TABLE events_archive
+(
+    id                   BIGINT       PRIMARY KEY,
+    name                 VARCHAR(255) NOT NULL,
+    resource_id          VARCHAR(64)  NOT NULL,
+    start_time           TIMESTAMP    NOT NULL,
+    end_time             TIMESTAMP    NOT NULL,
+    recurrence_frequency VARCHAR(10),
+    recurrence_interval  INT,
+    recurrence_count     INT,
+    recurrence_until     TIMESTAMP,
+    series_end_time      TIMESTAMP,
+    created_at           TIMESTAMP    NOT NULL,
+    updated_at           TIMESTAMP    NOT NULL,
+    archived_at          TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_events_archive_time_range ON events_archive (start_time, end_time);
+CREATE INDEX idx_events_archive_resource_time_range ON events_archive (resource_id, start_time, end_time);
@@ -0,0 +1,81 @@
+package com.eventscheduler.benchmark;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Compares throughput and latency of a range {@code GET /events} at high concurrency between
+ * the servlet stack and the {@code reactive} profile, over the same seeded week of events.
+ * <p>
+ * The servlet stack holds a Tomcat thread and a JDBC connection for each request in flight;
+ * the reactive stack serves every request from a few event loop threads over the R2DBC pool.
+ * Run with {@code mvn test -Pbenchmark,reactive}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveLoadTest {
+
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 1_000;
+    private static final int SEEDED_EVENTS = 10_000;
+    private static final String RANGE = "?startTime=" + BenchmarkContexts.FIRST_SLOT.plusDays(100) +
+            "&endTime=" + BenchmarkContexts.FIRST_SLOT.plusDays(107);
+
+    @Nested
+    @TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:load-test-servlet;DB_CLOSE_DELAY=-1")
+    class Servlet {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private ConfigurableApplicationContext context;
+
+        @Test
+        void getEventsInRangeUnderLoad() throws InterruptedException {
+            runLoadTest("servlet", context, port);
+        }
+    }
+
+    @Nested
+    @ActiveProfiles("reactive")
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:load-test-reactive;DB_CLOSE_DELAY=-1",
+            "spring.r2dbc.url=r2dbc:h2:mem:///load-test-reactive"})
+    class Reactive {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private ConfigurableApplicationContext context;
+
+        @Test
+        void getEventsInRangeUnderLoad() throws InterruptedException {
+            runLoadTest("reactive", context, port);
+        }
+    }
+
+    private static void runLoadTest(String label, ConfigurableApplicationContext context, int port)
+            throws InterruptedException {
+        BenchmarkContexts.seed(context, SEEDED_EVENTS, 0.5);
+        URI uri = URI.create("http://localhost:" + port + "/events" + RANGE);
+        HttpLoad.run(uri, CONCURRENCY, CONCURRENCY);
+
+        HttpLoad.Result result = HttpLoad.run(uri, REQUESTS, CONCURRENCY);
+
+        System.out.println(result.summary(label));
+        assertThat(result.failures()).isZero();
+    }
+}
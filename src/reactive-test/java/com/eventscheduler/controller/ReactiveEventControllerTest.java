@@ -0,0 +1,126 @@
+package com.eventscheduler.controller;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.service.EventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveEventControllerTest {
+
+    private static final String RESOURCE = "reactive-room";
+    private static final LocalDateTime DAY = LocalDateTime.of(2034, 9, 12, 0, 0);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private EventService eventService;
+
+    // Created events are found by id, by range and in the occupancy, and an overlapping create is refused
+    @Test
+    void createEvent_ThenReadItBack() {
+        // Arrange
+        EventDto created = webTestClient.post().uri("/events")
+                .bodyValue(event("Standup", 9, 10))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        // Act
+        webTestClient.post().uri("/events")
+                .bodyValue(event("Overlaps standup", 9, 11))
+                .exchange()
+
+                // Assert
+                .expectStatus().isEqualTo(409);
+        webTestClient.get().uri("/events/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventDto.class).isEqualTo(created);
+        assertThat(eventService.getEvents(RESOURCE, DAY, DAY.plusDays(1))).containsExactly(created);
+        webTestClient.get()
+                .uri(uri -> uri.path("/events/occupancy")
+                        .queryParam("from", DAY)
+                        .queryParam("to", DAY.plusDays(1))
+                        .queryParam("resourceId", RESOURCE)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(OccupancyBucketDto.class).containsExactly(new OccupancyBucketDto(DAY, 1, 60));
+    }
+
+    // Events stored through the servlet stack are streamed one per line, and conflict with reactive creates
+    @Test
+    void getEvents_StreamsNdjson() {
+        // Arrange
+        LocalDateTime day = DAY.plusDays(1);
+        EventDto first = eventService.createEvent(event("First", day, 8, 9));
+        EventDto second = eventService.createEvent(event("Second", day, 10, 11));
+
+        // Act
+        Flux<EventDto> stream = webTestClient.get()
+                .uri(uri -> uri.path("/events")
+                        .queryParam("resourceId", RESOURCE)
+                        .queryParam("startTime", day)
+                        .queryParam("endTime", day.plusDays(1))
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EventDto.class)
+                .getResponseBody();
+
+        // Assert
+        StepVerifier.create(stream)
+                .expectNext(first, second)
+                .verifyComplete();
+        webTestClient.post().uri("/events")
+                .bodyValue(event("Overlaps first", day, 8, 10))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    // Unknown ids and backwards ranges are answered like the servlet stack does
+    @Test
+    void errors_MatchServletStack() {
+        webTestClient.get().uri("/events/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Event not found with ID: " + Long.MAX_VALUE);
+        webTestClient.get()
+                .uri(uri -> uri.path("/events")
+                        .queryParam("startTime", DAY.plusHours(2))
+                        .queryParam("endTime", DAY)
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static EventDto event(String name, int startHour, int endHour) {
+        return event(name, DAY, startHour, endHour);
+    }
+
+    private static EventDto event(String name, LocalDateTime day, int startHour, int endHour) {
+        return EventDto.builder()
+                .name(name)
+                .resourceId(RESOURCE)
+                .startTime(day.withHour(startHour))
+                .endTime(day.withHour(endHour))
+                .build();
+    }
+}
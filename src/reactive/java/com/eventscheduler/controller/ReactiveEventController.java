@@ -0,0 +1,99 @@
+package com.eventscheduler.controller;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.exception.EventNotFoundException;
+import com.eventscheduler.service.EventService;
+import com.eventscheduler.service.ReactiveEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking variant of the list, by-id and create operations of {@link EventController},
+ * served instead of it by the {@code reactive} profile.
+ */
+@RestController
+@RequestMapping("/events")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventController {
+
+    private final ReactiveEventService reactiveEventService;
+    private final EventService eventService;
+
+    @Autowired
+    public ReactiveEventController(ReactiveEventService reactiveEventService,
+                                   EventService eventService) {
+        this.reactiveEventService = reactiveEventService;
+        this.eventService = eventService;
+    }
+
+    /**
+     * Get all events or filter by time range, optionally of one resource. Events are written
+     * as they are read, as a JSON array or, for {@code application/x-ndjson}, one per line, and
+     * reading slows down when the client does.
+     *
+     * @return stream of events
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EventDto> getEvents(
+            @RequestParam(value = "startTime", required = false) LocalDateTime startTime,
+            @RequestParam(value = "endTime", required = false) LocalDateTime endTime,
+            @RequestParam(value = "resourceId", required = false) String resourceId) {
+        if (resourceId != null && (startTime == null || endTime == null)) {
+            throw new BadRequestException("A resource filter requires a time range.");
+        }
+        if (startTime != null && endTime != null && !startTime.isBefore(endTime)) {
+            throw new BadRequestException("Start time must be before end time.");
+        }
+        return reactiveEventService.getEvents(resourceId, startTime, endTime);
+    }
+
+    /**
+     * Get the number of events and the booked minutes per hour or day between from and to, like
+     * {@link EventController#getOccupancy}. The rollups are read over JDBC on a worker thread.
+     *
+     * @return list of buckets in time order
+     */
+    @GetMapping("/occupancy")
+    public Mono<List<OccupancyBucketDto>> getOccupancy(
+            @RequestParam("from") LocalDateTime from,
+            @RequestParam("to") LocalDateTime to,
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(value = "resourceId", required = false) String resourceId) {
+        return Mono.fromCallable(() -> eventService.getOccupancy(resourceId, from, to, granularity))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Get an event by ID
+     *
+     * @param id of the event
+     * @return event
+     */
+    @GetMapping("/{id}")
+    public Mono<EventDto> getEventById(@PathVariable Long id) {
+        return reactiveEventService.getEventById(id)
+                .switchIfEmpty(Mono.error(() -> new EventNotFoundException("Event not found with ID: " + id)));
+    }
+
+    /**
+     * Create a new event
+     *
+     * @param event to create
+     * @return created event
+     */
+    @PostMapping
+    public Mono<EventDto> createEvent(@RequestBody @Validated EventDto event) {
+        return reactiveEventService.createEvent(event);
+    }
+}
@@ -0,0 +1,58 @@
+package com.eventscheduler.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Error responses of the reactive stack, in the same shape as {@link GlobalExceptionHandler}.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveExceptionHandler {
+    @ExceptionHandler(EventNotFoundException.class)
+    public ResponseEntity<Object> handleEventNotFoundException(EventNotFoundException ex, ServerHttpRequest request) {
+        log.error(ex.getMessage(), ex);
+        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage(), request.getPath().value());
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Object> handleBadRequestException(BadRequestException ex, ServerHttpRequest request) {
+        log.error(ex.getMessage(), ex);
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getPath().value());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Object> handleConflictException(ConflictException ex, ServerHttpRequest request) {
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage(), request.getPath().value());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleValidationException(WebExchangeBindException ex, ServerHttpRequest request) {
+        log.error("Validation error: {}", ex.getMessage());
+        FieldError fieldError = ex.getBindingResult().getFieldError();
+        String message = fieldError != null ? fieldError.getDefaultMessage() : "Validation error";
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, message, request.getPath().value());
+    }
+
+    private ResponseEntity<Object> buildErrorResponse(HttpStatus status, String message, String path) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", status.value());
+        errorResponse.put("error", status.getReasonPhrase());
+        errorResponse.put("message", message);
+        errorResponse.put("path", path);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,247 @@
+package com.eventscheduler.repository;
+
+import com.eventscheduler.model.Event;
+import com.eventscheduler.model.Recurrence;
+import com.eventscheduler.model.RecurrenceFrequency;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking access to the events table over R2DBC, for the reactive stack. Reads the
+ * same tables as {@link EventRepository} with the same range semantics, and takes the same
+ * resource lock rows, so both stacks enforce the no-overlap rule against each other. Events
+ * are inserted with their occupancy rollups.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventRepository {
+
+    private static final String COLUMNS = "id, name, resource_id, start_time, end_time, recurrence_frequency, " +
+            "recurrence_interval, recurrence_count, recurrence_until, series_end_time, created_at, updated_at";
+    // Bounds inclusive, like EventRepository#findEvents
+    private static final String IN_RANGE = "start_time <= :endTime AND (end_time >= :startTime " +
+            "OR series_end_time >= :startTime)";
+    private static final String LOCK_RESOURCE_SQL =
+            "SELECT resource_id FROM event_resource_locks WHERE resource_id = :resourceId FOR UPDATE";
+    private static final String INSERT_RESOURCE_LOCK_SQL =
+            "INSERT INTO event_resource_locks (resource_id) VALUES (:resourceId)";
+    private static final String BUMP_VERSION_SQL = "UPDATE event_versions SET version = version + 1, " +
+            "last_modified = :now WHERE resource_id = :resourceId";
+    private static final String INSERT_VERSION_SQL = "INSERT INTO event_versions " +
+            "(resource_id, version, last_modified) VALUES (:resourceId, 1, :now)";
+    private static final String ADD_OCCUPANCY_SQL = "UPDATE event_occupancy_rollups " +
+            "SET event_count = event_count + :eventCount, booked_seconds = booked_seconds + :bookedSeconds " +
+            "WHERE resource_id = :resourceId AND granularity = :granularity AND bucket_start = :bucketStart";
+    private static final String INSERT_OCCUPANCY_SQL = "INSERT INTO event_occupancy_rollups " +
+            "(resource_id, granularity, bucket_start, event_count, booked_seconds) " +
+            "VALUES (:resourceId, :granularity, :bucketStart, :eventCount, :bookedSeconds)";
+
+    private final DatabaseClient databaseClient;
+
+    // Ids of the block last taken from events_seq that have not been handed out yet
+    private final Object idBlockLock = new Object();
+    private long nextBlockId;
+    private long lastBlockId = -1;
+
+    @Autowired
+    public ReactiveEventRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Every event, archived ones included, skipping archived rows still found in the hot table.
+     */
+    public Flux<Event> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM events UNION ALL SELECT " + COLUMNS +
+                        " FROM events_archive a WHERE NOT EXISTS (SELECT 1 FROM events e WHERE e.id = a.id)")
+                .map(ReactiveEventRepository::toEvent)
+                .all();
+    }
+
+    /**
+     * The event from the hot table or, once it has been moved there, from the archive.
+     */
+    public Mono<Event> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM events WHERE id = :id " +
+                        "UNION ALL SELECT " + COLUMNS + " FROM events_archive WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveEventRepository::toEvent)
+                .first();
+    }
+
+    /**
+     * Events with any occurrence in the range, of one resource or of all resources when
+     * {@code resourceId} is null, as stored. With {@code includeArchive}, archived events
+     * are appended, skipping any still found in the hot table.
+     */
+    public Flux<Event> findInRange(String resourceId, LocalDateTime startTime, LocalDateTime endTime,
+                                   boolean includeArchive) {
+        String filter = IN_RANGE + (resourceId != null ? " AND resource_id = :resourceId" : "");
+        String sql = "SELECT " + COLUMNS + " FROM events WHERE " + filter;
+        if (includeArchive) {
+            sql += " UNION ALL SELECT " + COLUMNS + " FROM events_archive a WHERE " + filter +
+                    " AND NOT EXISTS (SELECT 1 FROM events e WHERE e.id = a.id)";
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("startTime", startTime)
+                .bind("endTime", endTime);
+        if (resourceId != null) {
+            spec = spec.bind("resourceId", resourceId);
+        }
+        return spec.map(ReactiveEventRepository::toEvent).all();
+    }
+
+    /**
+     * Hands out ids the way Hibernate's pooled optimizer does on the JPA stack: a value of
+     * {@code events_seq} is the top of a block of as many ids as the sequence increment, and
+     * the sequence is only read again once the block is used up. Creates racing for a new
+     * block each take their own, so ids never collide, at the cost of the rest of a block.
+     */
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            synchronized (idBlockLock) {
+                if (nextBlockId <= lastBlockId) {
+                    return Mono.just(nextBlockId++);
+                }
+            }
+            return databaseClient.sql("SELECT NEXT VALUE FOR events_seq, CAST(INCREMENT AS BIGINT) " +
+                            "FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EVENTS_SEQ'")
+                    .map(row -> takeBlock(row.get(0, Long.class), row.get(1, Long.class)))
+                    .one();
+        });
+    }
+
+    private long takeBlock(long top, long increment) {
+        synchronized (idBlockLock) {
+            nextBlockId = top - increment + 2;
+            lastBlockId = top;
+        }
+        return top - increment + 1;
+    }
+
+    /**
+     * Locks the resource's row in {@code event_resource_locks} until the current transaction
+     * ends, like {@link com.eventscheduler.service.EventResourceLocks#lock}. The row of a new
+     * resource is inserted, or locked once a concurrent insert commits.
+     */
+    public Mono<Void> lockResource(String resourceId) {
+        return databaseClient.sql(LOCK_RESOURCE_SQL)
+                .bind("resourceId", resourceId)
+                .fetch().all()
+                .hasElements()
+                .flatMap(locked -> locked ? Mono.<Void>empty()
+                        : databaseClient.sql(INSERT_RESOURCE_LOCK_SQL)
+                        .bind("resourceId", resourceId)
+                        .then()
+                        .onErrorResume(DataIntegrityViolationException.class, e -> databaseClient.sql(LOCK_RESOURCE_SQL)
+                                .bind("resourceId", resourceId)
+                                .fetch().all()
+                                .then()));
+    }
+
+    /**
+     * Inserts the event, which must have its id and timestamps set.
+     */
+    public Mono<Event> insert(Event event) {
+        Recurrence recurrence = event.getRecurrence();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO events (" + COLUMNS + ") " +
+                        "VALUES (:id, :name, :resourceId, :startTime, :endTime, :frequency, :interval, :count, " +
+                        ":until, :seriesEndTime, :createdAt, :updatedAt)")
+                .bind("id", event.getId())
+                .bind("name", event.getName())
+                .bind("resourceId", event.getResourceId())
+                .bind("startTime", event.getStartTime())
+                .bind("endTime", event.getEndTime())
+                .bind("createdAt", event.getCreatedAt())
+                .bind("updatedAt", event.getUpdatedAt());
+        spec = bindNullable(spec, "frequency", recurrence == null ? null : recurrence.getFrequency().name(),
+                String.class);
+        spec = bindNullable(spec, "interval", recurrence == null ? null : recurrence.getInterval(), Integer.class);
+        spec = bindNullable(spec, "count", recurrence == null ? null : recurrence.getCount(), Integer.class);
+        spec = bindNullable(spec, "until", recurrence == null ? null : recurrence.getUntil(), LocalDateTime.class);
+        spec = bindNullable(spec, "seriesEndTime", event.getSeriesEndTime(), LocalDateTime.class);
+        return spec.then()
+                .thenReturn(event);
+    }
+
+    /**
+     * Bumps the version of the resource's event lists, like
+     * {@link com.eventscheduler.service.EventVersions#bump}.
+     */
+    public Mono<Void> bumpVersion(String resourceId, LocalDateTime now) {
+        return databaseClient.sql(BUMP_VERSION_SQL)
+                .bind("now", now)
+                .bind("resourceId", resourceId)
+                .fetch().rowsUpdated()
+                .flatMap(updated -> updated > 0 ? Mono.<Void>empty()
+                        : databaseClient.sql(INSERT_VERSION_SQL)
+                        .bind("resourceId", resourceId)
+                        .bind("now", now)
+                        .then()
+                        .onErrorResume(DataIntegrityViolationException.class, e -> databaseClient.sql(BUMP_VERSION_SQL)
+                                .bind("now", now)
+                                .bind("resourceId", resourceId)
+                                .then()));
+    }
+
+    /**
+     * Adds an event count and booked time to a row of the occupancy rollups, inserting the row
+     * when it is missing. A row inserted by a concurrent transaction in the meantime is added
+     * to instead.
+     */
+    public Mono<Void> addOccupancy(String resourceId, String granularity, LocalDateTime bucketStart,
+                                   long eventCount, long bookedSeconds) {
+        return bindOccupancy(ADD_OCCUPANCY_SQL, resourceId, granularity, bucketStart, eventCount, bookedSeconds)
+                .fetch().rowsUpdated()
+                .flatMap(updated -> updated > 0 ? Mono.<Void>empty()
+                        : bindOccupancy(INSERT_OCCUPANCY_SQL, resourceId, granularity, bucketStart, eventCount,
+                                bookedSeconds).then()
+                        .onErrorResume(DataIntegrityViolationException.class, e -> bindOccupancy(ADD_OCCUPANCY_SQL,
+                                resourceId, granularity, bucketStart, eventCount, bookedSeconds).then()));
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindOccupancy(String sql, String resourceId, String granularity,
+                                                            LocalDateTime bucketStart, long eventCount,
+                                                            long bookedSeconds) {
+        return databaseClient.sql(sql)
+                .bind("resourceId", resourceId)
+                .bind("granularity", granularity)
+                .bind("bucketStart", bucketStart)
+                .bind("eventCount", eventCount)
+                .bind("bookedSeconds", bookedSeconds);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static Event toEvent(Readable row) {
+        String frequency = row.get("recurrence_frequency", String.class);
+        Recurrence recurrence = frequency == null ? null : Recurrence.builder()
+                .frequency(RecurrenceFrequency.valueOf(frequency))
+                .interval(row.get("recurrence_interval", Integer.class))
+                .count(row.get("recurrence_count", Integer.class))
+                .until(row.get("recurrence_until", LocalDateTime.class))
+                .build();
+        return Event.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .resourceId(row.get("resource_id", String.class))
+                .startTime(row.get("start_time", LocalDateTime.class))
+                .endTime(row.get("end_time", LocalDateTime.class))
+                .recurrence(recurrence)
+                .seriesEndTime(row.get("series_end_time", LocalDateTime.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
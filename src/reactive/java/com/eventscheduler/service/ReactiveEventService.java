@@ -0,0 +1,151 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.exception.ConflictException;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.ReactiveEventRepository;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event reads and creates for the reactive stack, over {@link ReactiveEventRepository}.
+ * <p>
+ * Range reads stream rows as the client consumes them and expand recurring events on the
+ * fly, reading the archive for ranges before the archive horizon like
+ * {@link EventQueryService#findEventDtosInRange}. A create locks its resource's row in
+ * {@code event_resource_locks}, checks the stored events of the resource, then inserts the
+ * event and its occupancy rollups and bumps the version of its resource in one R2DBC
+ * transaction; a create racing it, through either stack or on another instance, waits for the
+ * lock and then sees the event. After the commit the event is journaled and
+ * {@link EventsCreatedEvent} is published, on a worker thread, so the in-memory indexes,
+ * caches and the change feed see it as they would a create of the servlet stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventService {
+
+    private final ReactiveEventRepository reactiveEventRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final EventValidator eventValidator;
+    private final EventMapper eventMapper;
+    private final EventArchiver eventArchiver;
+    private final EventJournal eventJournal;
+    private final EventMetrics eventMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ReactiveEventService(ReactiveEventRepository reactiveEventRepository,
+                                TransactionalOperator transactionalOperator,
+                                EventValidator eventValidator,
+                                EventMapper eventMapper,
+                                EventArchiver eventArchiver,
+                                EventJournal eventJournal,
+                                EventMetrics eventMetrics,
+                                ApplicationEventPublisher eventPublisher) {
+        this.reactiveEventRepository = reactiveEventRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.eventValidator = eventValidator;
+        this.eventMapper = eventMapper;
+        this.eventArchiver = eventArchiver;
+        this.eventJournal = eventJournal;
+        this.eventMetrics = eventMetrics;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Returns the occurrences in the range, of one resource or of all resources when
+     * {@code resourceId} is null, or every stored event, archived ones included, when no
+     * range is given.
+     */
+    public Flux<EventDto> getEvents(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            return reactiveEventRepository.findAll().map(eventMapper::toEventDto);
+        }
+        eventValidator.validateStartAndEndTime(startTime, endTime);
+        boolean includeArchive = startTime.isBefore(eventArchiver.archiveHorizon());
+        return reactiveEventRepository.findInRange(resourceId, startTime, endTime, includeArchive)
+                .concatMapIterable(event -> EventOccurrences.expand(event, startTime, endTime))
+                .map(eventMapper::toEventDto);
+    }
+
+    public Mono<EventDto> getEventById(Long id) {
+        return reactiveEventRepository.findById(id).map(eventMapper::toEventDto);
+    }
+
+    /**
+     * Creates the event, completing once it has been committed.
+     *
+     * @return the created event, or an error with a {@link BadRequestException} if it is
+     * invalid or a {@link ConflictException} if it overlaps a stored event
+     */
+    public Mono<EventDto> createEvent(EventDto eventDto) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = eventMetrics.startTimer();
+            return admitEvent(eventDto)
+                    .doOnSuccess(created -> eventMetrics.recordCreate(sample, EventMetrics.OUTCOME_CREATED))
+                    .doOnError(error -> eventMetrics.recordCreate(sample, outcomeOf(error)));
+        });
+    }
+
+    private Mono<EventDto> admitEvent(EventDto eventDto) {
+        eventValidator.validateStartAndEndTime(eventDto.getStartTime(), eventDto.getEndTime());
+        eventValidator.validateRecurrence(eventDto);
+        Event event = eventMapper.toEntity(eventDto);
+        event.setResourceId(Event.resourceIdOrDefault(event.getResourceId()));
+        LocalDateTime now = LocalDateTime.now();
+        event.setCreatedAt(now);
+        event.setUpdatedAt(now);
+        event.setSeriesEndTime(event.isRecurring() ? event.lastOccurrenceEnd() : null);
+        Map<EventOccupancyRollups.Bucket, EventOccupancyRollups.Totals> rollups =
+                EventOccupancyRollups.rollupsOf(List.of(event));
+
+        // The stored events are read under the resource's lock row, so they include every commit before it
+        Mono<Event> stored = reactiveEventRepository.lockResource(event.getResourceId())
+                .thenMany(reactiveEventRepository.findInRange(event.getResourceId(), event.getStartTime(),
+                        event.lastOccurrenceEnd(), false))
+                .filter(storedEvent -> EventOccurrences.overlaps(event, storedEvent))
+                .next()
+                .flatMap(conflict -> Mono.<Event>error(new ConflictException("The event conflicts with existing event '"
+                        + conflict.getName() + "' (id " + conflict.getId() + ").")))
+                .switchIfEmpty(Mono.defer(() -> reactiveEventRepository.nextId()
+                        .flatMap(id -> {
+                            event.setId(id);
+                            return reactiveEventRepository.insert(event);
+                        })
+                        .flatMap(saved -> Flux.fromIterable(rollups.entrySet())
+                                .concatMap(row -> reactiveEventRepository.addOccupancy(row.getKey().resourceId(),
+                                        row.getKey().granularity().name(), row.getKey().start(),
+                                        row.getValue().eventCount(), row.getValue().bookedSeconds()))
+                                .then(reactiveEventRepository.bumpVersion(saved.getResourceId(), now))
+                                .then(Mono.just(saved)))));
+
+        return transactionalOperator.transactional(stored)
+                // Journal forces and listeners may block, so they run off the event loop
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(saved -> {
+                    eventJournal.logCreated(List.of(saved));
+                    eventPublisher.publishEvent(new EventsCreatedEvent(List.of(saved)));
+                })
+                .map(eventMapper::toEventDto);
+    }
+
+    private static String outcomeOf(Throwable error) {
+        if (error instanceof ConflictException) {
+            return EventMetrics.OUTCOME_CONFLICT;
+        }
+        return error instanceof BadRequestException ? EventMetrics.OUTCOME_REJECTED : EventMetrics.OUTCOME_ERROR;
+    }
+}
@@ -0,0 +1,94 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.EventSchedulerApplication;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.service.EventPersistenceService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Starts the application without a web server against its own in-memory database, for
+ * JMH benchmarks that need the real persistence stack.
+ */
+final class BenchmarkContexts {
+
+    static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    private static final int EVENTS_PER_TRANSACTION = 1_000;
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> properties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, Object> settings = new HashMap<>(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.main.banner-mode", "off",
+                "spring.h2.console.enabled", "false",
+                "spring.jpa.open-in-view", "false",
+                "logging.level.root", "WARN",
+                "logging.level.org.flywaydb.core", "WARN"));
+        settings.putAll(properties);
+        // Passed as command line arguments, since default properties lose to application.properties
+        String[] args = settings.entrySet().stream()
+                .map(setting -> "--" + setting.getKey() + "=" + setting.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EventSchedulerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+        settings.forEach((key, value) -> {
+            if (!String.valueOf(value).equals(context.getEnvironment().getProperty(key))) {
+                context.close();
+                throw new IllegalStateException("Benchmark setting " + key + "=" + value + " was not applied");
+            }
+        });
+        return context;
+    }
+
+    /**
+     * Stores one event per hour starting at {@link #FIRST_SLOT}, each occupying the given
+     * fraction of its hour, so that the fraction is the density of the timeline.
+     */
+    static void seed(ConfigurableApplicationContext context, int count, double density) {
+        EventPersistenceService eventPersistenceService = context.getBean(EventPersistenceService.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        long minutes = Math.max(1, Math.round(60 * density));
+        for (int offset = 0; offset < count; offset += EVENTS_PER_TRANSACTION) {
+            List<Event> events = new ArrayList<>(EVENTS_PER_TRANSACTION);
+            for (int i = offset; i < Math.min(count, offset + EVENTS_PER_TRANSACTION); i++) {
+                LocalDateTime start = FIRST_SLOT.plusHours(i);
+                events.add(Event.builder()
+                        .name("Seeded " + i)
+                        .startTime(start)
+                        .endTime(start.plusMinutes(minutes))
+                        .build());
+            }
+            transactionTemplate.executeWithoutResult(status -> eventPersistenceService.saveEvents(events));
+        }
+    }
+
+    static List<Event> events(int count) {
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = FIRST_SLOT.plusHours(i);
+            events.add(Event.builder()
+                    .id((long) i)
+                    .name("Event " + i)
+                    .startTime(start)
+                    .endTime(start.plusMinutes(30))
+                    .createdAt(start)
+                    .updatedAt(start)
+                    .build());
+        }
+        return events;
+    }
+}
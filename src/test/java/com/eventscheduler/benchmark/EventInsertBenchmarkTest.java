@@ -0,0 +1,102 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.EventRepository;
+import com.eventscheduler.service.EventPersistenceService;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Measures inserts per second when persisting 100k events through
+ * {@link EventPersistenceService#saveEvents(List)}.
+ * <p>
+ * IDENTITY ids forced Hibernate to send one insert per row. {@link RowAtATime} reproduces
+ * that by turning JDBC batching off; {@link Batched} uses the application settings.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class EventInsertBenchmarkTest {
+
+    private static final int EVENTS = 100_000;
+    private static final int EVENTS_PER_TRANSACTION = 1_000;
+
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:insert-benchmark-row-at-a-time",
+            "spring.jpa.properties.hibernate.jdbc.batch_size=0"
+    })
+    class RowAtATime {
+
+        @Autowired
+        private EventPersistenceService eventPersistenceService;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+
+        @Test
+        void persist100kEvents() {
+            runBenchmark("row at a time", eventPersistenceService, eventRepository, transactionTemplate);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:insert-benchmark-batched")
+    class Batched {
+
+        @Autowired
+        private EventPersistenceService eventPersistenceService;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+
+        @Test
+        void persist100kEvents() {
+            runBenchmark("batched", eventPersistenceService, eventRepository, transactionTemplate);
+        }
+    }
+
+    private static void runBenchmark(String label,
+                                     EventPersistenceService eventPersistenceService,
+                                     EventRepository eventRepository,
+                                     TransactionTemplate transactionTemplate) {
+        long countBefore = eventRepository.count();
+        LocalDateTime firstStart = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+        long startNanos = System.nanoTime();
+        for (int offset = 0; offset < EVENTS; offset += EVENTS_PER_TRANSACTION) {
+            List<Event> events = new ArrayList<>(EVENTS_PER_TRANSACTION);
+            for (int i = offset; i < offset + EVENTS_PER_TRANSACTION; i++) {
+                LocalDateTime start = firstStart.plusMinutes(i);
+                events.add(Event.builder()
+                        .name("Benchmark " + i)
+                        .startTime(start)
+                        .endTime(start.plusMinutes(1))
+                        .build());
+            }
+            transactionTemplate.executeWithoutResult(status -> eventPersistenceService.saveEvents(events));
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+
+        System.out.printf("Insert benchmark (%s): %d events in %.2f s, %.0f inserts/s%n",
+                label, EVENTS, seconds, EVENTS / seconds);
+        assertThat(eventRepository.count() - countBefore).isEqualTo(EVENTS);
+    }
+}
@@ -0,0 +1,73 @@
+package com.eventscheduler.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a fixed number of GET requests with a fixed number in flight and reports throughput
+ * and latency percentiles.
+ */
+final class HttpLoad {
+
+    private HttpLoad() {
+    }
+
+    static Result run(URI uri, int requests, int concurrency) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int slot = i;
+            long sentNanos = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[slot] = System.nanoTime() - sentNanos;
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).exceptionally(error -> null).join();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Arrays.sort(latencies);
+        return new Result(requests, failures.get(), elapsedNanos,
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    record Result(int requests, int failures, long elapsedNanos, long p50Nanos, long p99Nanos) {
+
+        double requestsPerSecond() {
+            return requests / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        String summary(String label) {
+            return String.format("Load test (%s): %d requests, %d failed, %.0f req/s, p50 %.1f ms, p99 %.1f ms",
+                    label, requests, failures, requestsPerSecond(), p50Nanos / 1e6, p99Nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.eventscheduler.benchmark;
+
+import com.eventscheduler.repository.EventRepository;
+import com.eventscheduler.service.EventJournal;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Measures how long a restart takes to restore 1M events from the journal, once from the
+ * log alone and once from a snapshot.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JournalRestoreBenchmarkTest {
+
+    private static final int EVENTS = 1_000_000;
+
+    @TempDir
+    private Path journalDirectory;
+
+    @Test
+    void restore1mEvents() {
+        Map<String, Object> properties = Map.of(
+                "event-scheduler.journal.enabled", "true",
+                "event-scheduler.journal.directory", journalDirectory.toString(),
+                "event-scheduler.archive.enabled", "false");
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start(properties)) {
+            assertThat(context.getBean(EventJournal.class).isEnabled()).isTrue();
+            BenchmarkContexts.seed(context, EVENTS, 1 / 60.0);
+        }
+
+        long fromLog = restart(properties, true);
+        long fromSnapshot = restart(properties, false);
+
+        System.out.printf("Journal restore benchmark: %d events in %d ms from the log, %d ms from a snapshot%n",
+                EVENTS, fromLog, fromSnapshot);
+    }
+
+    /**
+     * Returns the startup time in milliseconds, optionally writing a snapshot for the next start.
+     */
+    private static long restart(Map<String, Object> properties, boolean snapshotAfter) {
+        long startNanos = System.nanoTime();
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start(properties)) {
+            long millis = (System.nanoTime() - startNanos) / 1_000_000;
+            assertThat(context.getBean(EventRepository.class).count()).isGreaterThanOrEqualTo(EVENTS);
+            if (snapshotAfter) {
+                context.getBean(EventJournal.class).snapshot();
+            }
+            return millis;
+        }
+    }
+}
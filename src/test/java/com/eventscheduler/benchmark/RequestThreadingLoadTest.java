@@ -0,0 +1,100 @@
+package com.eventscheduler.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Compares throughput and latency of {@code GET /events} at high concurrency between the
+ * default platform thread mode and the {@code virtual-threads} profile, against a database
+ * that takes {@code load-test.statement-latency-ms} per statement.
+ * <p>
+ * Both runs get more pooled connections than there are requests in flight, so no request
+ * waits for a connection and the request threads are the only bound. With platform threads,
+ * Tomcat's 200 threads each block on one query and the other requests wait for a thread. With
+ * virtual threads every request in flight runs its query at once, so the virtual thread run
+ * must reach a higher throughput than the platform thread run before it.
+ * <p>
+ * Virtual threads need Java 21, so the virtual thread run fails on an older runtime rather
+ * than report a comparison it did not make. The project compiles for Java 17; run the
+ * benchmark on a JDK 21 with {@code mvn test -Pbenchmark -Dbenchmark.jvm=<jdk21>/bin/java}.
+ */
+@Slf4j
+@Tag("benchmark")
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(SlowDatabaseConfiguration.class)
+class RequestThreadingLoadTest {
+
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 1_000;
+    private static final String TOMCAT_THREADS = "server.tomcat.threads.max=200";
+    private static final String POOL_SIZE = "spring.datasource.hikari.maximum-pool-size=" + (CONCURRENCY + 100);
+    private static final String MINIMUM_IDLE = "spring.datasource.hikari.minimum-idle=" + (CONCURRENCY + 100);
+
+    private static HttpLoad.Result platformThreadsResult;
+
+    @Nested
+    @Order(1)
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:load-test-platform-threads", TOMCAT_THREADS, POOL_SIZE, MINIMUM_IDLE})
+    class PlatformThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void getEventsUnderLoad() throws InterruptedException {
+            platformThreadsResult = runLoadTest("platform threads", port);
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @ActiveProfiles("virtual-threads")
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:load-test-virtual-threads", POOL_SIZE, MINIMUM_IDLE})
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void getEventsUnderLoad() throws InterruptedException {
+            assertThat(Runtime.version().feature())
+                    .as("Virtual threads need Java 21; pass -Dbenchmark.jvm=<jdk21>/bin/java")
+                    .isGreaterThanOrEqualTo(21);
+
+            HttpLoad.Result result = runLoadTest("virtual threads", port);
+
+            assertThat(platformThreadsResult).as("platform thread run").isNotNull();
+            log.info("Virtual threads served {} times the platform thread throughput",
+                    String.format("%.1f", result.requestsPerSecond() / platformThreadsResult.requestsPerSecond()));
+            assertThat(result.requestsPerSecond()).isGreaterThan(platformThreadsResult.requestsPerSecond());
+        }
+    }
+
+    private static HttpLoad.Result runLoadTest(String label, int port) throws InterruptedException {
+        URI uri = URI.create("http://localhost:" + port + "/events");
+        HttpLoad.run(uri, CONCURRENCY, CONCURRENCY);
+
+        HttpLoad.Result result = HttpLoad.run(uri, REQUESTS, CONCURRENCY);
+
+        log.info(result.summary(label));
+        assertThat(result.failures()).isZero();
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package com.eventscheduler.benchmark;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds a fixed delay to every statement execution, standing in for a remote database under
+ * load. The delay is spent while holding a pooled connection, like a slow query would be.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class SlowDatabaseConfiguration {
+
+    @Bean
+    static BeanPostProcessor slowDataSourcePostProcessor(
+            @Value("${load-test.statement-latency-ms:20}") long latencyMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? new SlowDataSource(dataSource, latencyMillis) : bean;
+            }
+        };
+    }
+
+    private static final class SlowDataSource extends DelegatingDataSource {
+
+        private final long latencyMillis;
+
+        SlowDataSource(DataSource target, long latencyMillis) {
+            super(target);
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return slow(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return slow(Connection.class, super.getConnection(username, password));
+        }
+
+        private <T> T slow(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (target instanceof Statement && method.getName().startsWith("execute")) {
+                            Thread.sleep(latencyMillis);
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (result instanceof PreparedStatement statement
+                                && method.getReturnType() == PreparedStatement.class) {
+                            return slow(PreparedStatement.class, statement);
+                        }
+                        return result;
+                    }));
+        }
+    }
+}
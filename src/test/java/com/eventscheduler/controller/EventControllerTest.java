@@ -1,19 +1,45 @@
 package com.eventscheduler.controller;
 
+import com.eventscheduler.config.ObjectMapperConfig;
+import com.eventscheduler.dto.EventBatchResultDto;
 import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.EventImportReportDto;
+import com.eventscheduler.dto.EventPageDto;
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.dto.TimeSlotDto;
+import com.eventscheduler.dto.VersionedEventDto;
+import com.eventscheduler.model.EventImportFormat;
+import com.eventscheduler.service.EventChangeFeed;
+import com.eventscheduler.service.EventImportService;
 import com.eventscheduler.service.EventService;
+import com.eventscheduler.service.EventVersions;
+import com.eventscheduler.service.EventWritePipeline;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,6 +55,23 @@ class EventControllerTest {
     @MockBean
     private EventService eventService;
 
+    @MockBean
+    private EventChangeFeed eventChangeFeed;
+
+    @MockBean
+    private EventImportService eventImportService;
+
+    @MockBean
+    private EventWritePipeline eventWritePipeline;
+
+    @MockBean
+    private EventVersions eventVersions;
+
+    @BeforeEach
+    void setUp() {
+        when(eventVersions.current(any())).thenReturn(new EventVersions.Version("1-t1", Instant.EPOCH));
+    }
+
     @Test
     void createEvent_shouldReturnCreatedEventDto() throws Exception {
         EventDto requestEvent = EventDto.builder()
@@ -61,4 +104,318 @@ class EventControllerTest {
         // Verify that the EventService.createEvent was called once with any EventDto
         verify(eventService, times(1)).createEvent(any(EventDto.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createEvent_withWritePipeline_shouldCreateThroughPipeline() throws Exception {
+        EventDto requestEvent = EventDto.builder()
+                .name("Queued Event")
+                .startTime(LocalDateTime.of(2024, 11, 22, 12, 0))
+                .endTime(LocalDateTime.of(2024, 11, 22, 13, 0))
+                .build();
+        EventDto responseEvent = EventDto.builder()
+                .id(2L)
+                .name("Queued Event")
+                .startTime(LocalDateTime.of(2024, 11, 22, 12, 0))
+                .endTime(LocalDateTime.of(2024, 11, 22, 13, 0))
+                .build();
+        when(eventWritePipeline.isEnabled()).thenReturn(true);
+        when(eventWritePipeline.createEvent(any(EventDto.class))).thenReturn(responseEvent);
+
+        mockMvc.perform(post("/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestEvent)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2));
+
+        verify(eventService, never()).createEvent(any(EventDto.class));
+    }
+
+    @Test
+    void createEvents_shouldReturnResultPerItem() throws Exception {
+        EventDto first = EventDto.builder()
+                .name("First Event")
+                .startTime(LocalDateTime.of(2024, 11, 22, 12, 0))
+                .endTime(LocalDateTime.of(2024, 11, 22, 13, 0))
+                .build();
+        EventDto second = EventDto.builder()
+                .name("Second Event")
+                .startTime(LocalDateTime.of(2024, 11, 22, 12, 30))
+                .endTime(LocalDateTime.of(2024, 11, 22, 13, 30))
+                .build();
+
+        List<EventBatchResultDto> results = List.of(
+                EventBatchResultDto.builder()
+                        .index(0)
+                        .status(EventBatchResultDto.Status.CREATED)
+                        .event(EventDto.builder()
+                                .id(1L)
+                                .name("First Event")
+                                .startTime(first.getStartTime())
+                                .endTime(first.getEndTime())
+                                .build())
+                        .build(),
+                EventBatchResultDto.builder()
+                        .index(1)
+                        .status(EventBatchResultDto.Status.CONFLICT)
+                        .event(second)
+                        .message("The event conflicts with an existing event.")
+                        .build());
+
+        when(eventService.createEvents(anyList())).thenReturn(results);
+
+        mockMvc.perform(post("/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].event.id").value(1))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].message").value("The event conflicts with an existing event."));
+
+        verify(eventService, times(1)).createEvents(anyList());
+    }
+
+    @Test
+    void importEvents_withCsv_shouldReturnReport() throws Exception {
+        EventImportReportDto report = EventImportReportDto.builder()
+                .importId("import-1")
+                .linesRead(3)
+                .created(2)
+                .completed(true)
+                .rejections(List.of())
+                .build();
+        when(eventImportService.importEvents(eq("import-1"), eq(EventImportFormat.CSV), any())).thenReturn(report);
+
+        mockMvc.perform(post("/events/import")
+                        .param("importId", "import-1")
+                        .contentType("text/csv")
+                        .content("name,startTime,endTime\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importId").value("import-1"))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.completed").value(true));
+    }
+
+    @Test
+    void getEvents_withLimit_shouldReturnPageAndNextCursor() throws Exception {
+        EventDto event = EventDto.builder()
+                .id(1L)
+                .name("First Event")
+                .startTime(LocalDateTime.of(2024, 11, 22, 12, 0))
+                .endTime(LocalDateTime.of(2024, 11, 22, 13, 0))
+                .build();
+
+        when(eventService.getEventsPage("cursor", 1)).thenReturn(EventPageDto.builder()
+                .events(List.of(event))
+                .nextCursor("next-cursor")
+                .build());
+
+        mockMvc.perform(get("/events").param("limit", "1").param("after", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(EventController.NEXT_CURSOR_HEADER, "next-cursor"))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(eventService, never()).getEvents(any(), any(), any());
+    }
+
+    @Test
+    void getEvents_withLimitAboveMaximum_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events").param("limit", "100000"))
+                .andExpect(status().isBadRequest());
+
+        verify(eventService, never()).getEventsPage(any(), anyInt());
+    }
+
+    @Test
+    void getEvents_withCurrentETag_shouldReturnNotModifiedWithoutQuerying() throws Exception {
+        when(eventService.getEventsPage(null, 10)).thenReturn(EventPageDto.builder().events(List.of()).build());
+        String etag = mockMvc.perform(get("/events").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(eventService);
+
+        mockMvc.perform(get("/events").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        verifyNoInteractions(eventService);
+
+        when(eventVersions.current(null)).thenReturn(new EventVersions.Version("1-t2", Instant.now()));
+        mockMvc.perform(get("/events").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getEventById_withCurrentETag_shouldReturnNotModified() throws Exception {
+        EventDto event = EventDto.builder().id(1L).name("First Event").build();
+        when(eventService.getVersionedEventById(1L))
+                .thenReturn(Optional.of(new VersionedEventDto(event, LocalDateTime.of(2024, 11, 22, 12, 0))));
+
+        String etag = mockMvc.perform(get("/events/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("First Event"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/events/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getEvents_withCborAccept_shouldReturnCborWithEpochMillis() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 11, 22, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 11, 22, 13, 0);
+        EventDto event = EventDto.builder().id(1L).name("First Event").startTime(start).endTime(end).build();
+        when(eventService.getEvents(null, start, end)).thenReturn(List.of(event));
+
+        byte[] body = mockMvc.perform(get("/events")
+                        .param("startTime", "2024-11-22T12:00:00")
+                        .param("endTime", "2024-11-22T13:00:00")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ObjectMapper cborMapper = ObjectMapperConfig.cborObjectMapper();
+        assertThat(cborMapper.readTree(body).get(0).get("startTime").asLong())
+                .isEqualTo(start.toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(cborMapper.readValue(body, EventDto[].class)).containsExactly(event);
+    }
+
+    @Test
+    void getEvents_withResourceAndNoRange_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events").param("resourceId", "room-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(eventService, never()).getEvents(any(), any(), any());
+    }
+
+    @Test
+    void streamEvents_withRange_shouldStreamEventsOfRange() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 11, 22, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 11, 22, 13, 0);
+        EventDto event = EventDto.builder().id(1L).name("First Event").resourceId("room-1")
+                .startTime(start).endTime(end).build();
+        doAnswer(invocation -> {
+            invocation.<Consumer<EventDto>>getArgument(3).accept(event);
+            return null;
+        }).when(eventService).streamEvents(eq("room-1"), eq(start), eq(end), any());
+
+        MvcResult result = mockMvc.perform(get("/events")
+                        .param("startTime", "2024-11-22T12:00:00")
+                        .param("endTime", "2024-11-22T13:00:00")
+                        .param("resourceId", "room-1")
+                        .accept(EventController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readValue(body.trim(), EventDto.class)).isEqualTo(event);
+        verify(eventService, never()).streamAllEvents(any());
+        verify(eventService, never()).getEvents(any(), any(), any());
+    }
+
+    @Test
+    void streamEvents_withLimit_shouldStreamPageAndNextCursor() throws Exception {
+        EventDto event = EventDto.builder().id(1L).name("First Event").build();
+        when(eventService.getEventsPage(null, 1)).thenReturn(EventPageDto.builder()
+                .events(List.of(event))
+                .nextCursor("next-cursor")
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/events").param("limit", "1")
+                        .accept(EventController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(EventController.NEXT_CURSOR_HEADER, "next-cursor"));
+        verify(eventService, never()).streamAllEvents(any());
+    }
+
+    @Test
+    void streamEvents_withInvalidFilters_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events").param("resourceId", "room-1")
+                        .accept(EventController.APPLICATION_NDJSON_VALUE))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/events").param("limit", "100000")
+                        .accept(EventController.APPLICATION_NDJSON_VALUE))
+                .andExpect(status().isBadRequest());
+
+        verify(eventService, never()).streamAllEvents(any());
+    }
+
+    @Test
+    void getFreeSlots_shouldReturnSlots() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 11, 22, 9, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 11, 22, 17, 0);
+        when(eventService.findFreeSlots("room-1", from, to, Duration.ofMinutes(30), 5)).thenReturn(List.of(
+                new TimeSlotDto(from, LocalDateTime.of(2024, 11, 22, 12, 0))));
+
+        mockMvc.perform(get("/events/free-slots")
+                        .param("from", "2024-11-22T09:00:00")
+                        .param("to", "2024-11-22T17:00:00")
+                        .param("resourceId", "room-1")
+                        .param("minDuration", "PT30M")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].startTime").value("2024-11-22T09:00:00"))
+                .andExpect(jsonPath("$[0].endTime").value("2024-11-22T12:00:00"));
+    }
+
+    @Test
+    void getFreeSlots_withInvalidMinDuration_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events/free-slots")
+                        .param("from", "2024-11-22T09:00:00")
+                        .param("to", "2024-11-22T17:00:00")
+                        .param("minDuration", "30 minutes"))
+                .andExpect(status().isBadRequest());
+
+        verify(eventService, never()).findFreeSlots(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getOccupancy_shouldReturnBuckets() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 11, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 11, 3, 0, 0);
+        when(eventService.getOccupancy("room-1", from, to, "day")).thenReturn(List.of(
+                new OccupancyBucketDto(from, 2, 90),
+                new OccupancyBucketDto(from.plusDays(1), 0, 0)));
+
+        mockMvc.perform(get("/events/occupancy")
+                        .param("from", "2024-11-01T00:00:00")
+                        .param("to", "2024-11-03T00:00:00")
+                        .param("resourceId", "room-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-11-01T00:00:00"))
+                .andExpect(jsonPath("$[0].eventCount").value(2))
+                .andExpect(jsonPath("$[0].bookedMinutes").value(90))
+                .andExpect(jsonPath("$[1].eventCount").value(0));
+    }
+
+    @Test
+    void getOccupancy_withoutRange_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events/occupancy")
+                        .param("granularity", "hour"))
+                .andExpect(status().isBadRequest());
+
+        verify(eventService, never()).getOccupancy(any(), any(), any(), any());
+    }
+
+    @Test
+    void streamCreatedEvents_shouldResumeFromLastEventIdHeader() throws Exception {
+        when(eventChangeFeed.subscribe(isNull(), isNull(), eq(42L), any()))
+                .thenReturn(mock(EventChangeFeed.Subscription.class));
+
+        mockMvc.perform(get("/events/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "42"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(eventChangeFeed).subscribe(isNull(), isNull(), eq(42L), any());
+    }
+}
@@ -0,0 +1,59 @@
+package com.eventscheduler.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventAdmissionLocksTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 11, 22, 0, 0);
+    private static final String RESOURCE = "room-1";
+
+    private final EventAdmissionLocks eventAdmissionLocks = new EventAdmissionLocks(16, 60, true);
+
+    // Overlapping events always share a stripe
+    @Test
+    void stripesFor_OverlappingEventsShareStripe() {
+        BitSet first = eventAdmissionLocks.stripesFor(RESOURCE, DAY.withHour(9), DAY.withHour(10).withMinute(30));
+        BitSet second = eventAdmissionLocks.stripesFor(RESOURCE, DAY.withHour(10).withMinute(15), DAY.withHour(11));
+
+        assertThat(first.intersects(second)).isTrue();
+    }
+
+    // Events that touch on a bucket boundary are admitted independently
+    @Test
+    void stripesFor_TouchingEventsDoNotShareStripe() {
+        BitSet first = eventAdmissionLocks.stripesFor(RESOURCE, DAY.withHour(9), DAY.withHour(10));
+        BitSet second = eventAdmissionLocks.stripesFor(RESOURCE, DAY.withHour(10), DAY.withHour(11));
+
+        assertThat(first.cardinality()).isEqualTo(1);
+        assertThat(first.intersects(second)).isFalse();
+    }
+
+    // The same bucket of different resources maps onto different stripes
+    @Test
+    void stripesFor_ResourcesUseDifferentStripes() {
+        BitSet first = eventAdmissionLocks.stripesFor("room-1", DAY.withHour(9), DAY.withHour(10));
+        BitSet second = eventAdmissionLocks.stripesFor("room-2", DAY.withHour(9), DAY.withHour(10));
+
+        assertThat(first.intersects(second)).isFalse();
+    }
+
+    // Events spanning more buckets than there are stripes take every stripe
+    @Test
+    void stripesFor_LongEventTakesAllStripes() {
+        BitSet stripes = eventAdmissionLocks.stripesFor(RESOURCE, DAY, DAY.plusDays(2));
+
+        assertThat(stripes.cardinality()).isEqualTo(16);
+    }
+
+    // Locks cannot be released without a transaction, so taking them outside one fails
+    @Test
+    void lockForTransaction_RequiresTransaction() {
+        assertThatThrownBy(() -> eventAdmissionLocks.lockForTransaction(RESOURCE, DAY.withHour(9), DAY.withHour(10)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.EventPageDto;
+import com.eventscheduler.dto.TimeSlotDto;
+import com.eventscheduler.repository.ArchivedEventRepository;
+import com.eventscheduler.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "event-scheduler.archive.batch-size=2",
+        "event-scheduler.archive.initial-delay-ms=3600000"
+})
+class EventArchiverTest {
+
+    private static final String RESOURCE = "archive-room";
+    private static final LocalDateTime PAST = LocalDateTime.now().minusYears(1).withNano(0);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventArchiver eventArchiver;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ArchivedEventRepository archivedEventRepository;
+
+    // Past events move to the archive in batches and are still found by time range queries
+    @Test
+    void archivePastEvents_MovesEndedEventsAndKeepsThemQueryable() {
+        List<Long> pastIds = List.of(create(PAST, 1), create(PAST.plusHours(2), 1), create(PAST.plusHours(4), 1));
+        Long futureId = create(LocalDateTime.now().plusYears(1).withNano(0), 1);
+
+        eventArchiver.archivePastEvents();
+
+        assertThat(eventRepository.findAllById(pastIds)).isEmpty();
+        assertThat(archivedEventRepository.findAllById(pastIds)).hasSize(3);
+        assertThat(eventRepository.findById(futureId)).isPresent();
+        assertThat(eventService.getEvents(RESOURCE, PAST.minusDays(1), PAST.plusDays(1)))
+                .extracting(EventDto::getId)
+                .containsExactlyInAnyOrderElementsOf(pastIds);
+        List<EventDto> streamed = new ArrayList<>();
+        eventService.streamEvents(RESOURCE, PAST.minusDays(1), PAST.plusDays(1), streamed::add);
+        assertThat(streamed).extracting(EventDto::getId).containsExactlyInAnyOrderElementsOf(pastIds);
+    }
+
+    // An event read by id before it was archived is still found by id afterwards, from the archive
+    @Test
+    void archivePastEvents_ArchivedEventsAreFoundById() {
+        Long id = create(PAST.plusDays(14), 1);
+        EventDto before = eventService.getEventById(id).orElseThrow();
+
+        eventArchiver.archivePastEvents();
+
+        assertThat(eventRepository.findById(id)).isEmpty();
+        assertThat(eventService.getEventById(id)).contains(before);
+    }
+
+    // Conflict checks only read the hot table, so archived slots can be booked again
+    @Test
+    void archivePastEvents_ArchivedEventsNoLongerConflict() {
+        LocalDateTime slot = PAST.plusDays(7);
+        create(slot, 1);
+
+        eventArchiver.archivePastEvents();
+
+        assertThatNoException().isThrownBy(() -> create(slot, 1));
+    }
+
+    // Unfiltered lists, pages, streams and free slot searches still see archived events
+    @Test
+    void archivePastEvents_ArchivedEventsStayInUnfilteredReads() {
+        LocalDateTime start = PAST.plusDays(21);
+        List<Long> ids = List.of(create(start, 1), create(start.plusHours(2), 1));
+
+        eventArchiver.archivePastEvents();
+
+        List<EventDto> streamed = new ArrayList<>();
+        eventService.streamAllEvents(streamed::add);
+        assertThat(streamed).extracting(EventDto::getId).containsSubsequence(ids);
+        assertThat(streamed).isSortedAccordingTo(Comparator.comparing(EventDto::getStartTime)
+                .thenComparing(EventDto::getId));
+        assertThat(eventService.getAllEvents()).extracting(EventDto::getId).containsAll(ids);
+        List<EventDto> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            EventPageDto page = eventService.getEventsPage(cursor, 100);
+            paged.addAll(page.getEvents());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(paged).extracting(EventDto::getId)
+                .containsExactlyElementsOf(streamed.stream().map(EventDto::getId).toList());
+        assertThat(eventService.findFreeSlots(RESOURCE, start, start.plusHours(4), Duration.ZERO, 10))
+                .containsExactly(new TimeSlotDto(start.plusHours(1), start.plusHours(2)),
+                        new TimeSlotDto(start.plusHours(3), start.plusHours(4)));
+    }
+
+    private Long create(LocalDateTime startTime, int hours) {
+        return eventService.createEvent(EventDto.builder()
+                .name("Archivable " + startTime)
+                .resourceId(RESOURCE)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(hours))
+                .build()).getId();
+    }
+}
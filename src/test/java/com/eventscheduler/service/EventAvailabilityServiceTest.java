@@ -0,0 +1,126 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.TimeSlotDto;
+import com.eventscheduler.model.ArchivedEvent;
+import com.eventscheduler.repository.ArchivedEventRepository;
+import com.eventscheduler.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventAvailabilityServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 11, 22, 0, 0);
+    private static final String RESOURCE = "room-1";
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ArchivedEventRepository archivedEventRepository;
+
+    @Mock
+    private EventArchiver eventArchiver;
+
+    @InjectMocks
+    private EventAvailabilityService eventAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        when(eventArchiver.archiveHorizon()).thenReturn(DAY);
+    }
+
+    // Gaps between, before and after busy slots are returned, overlapping busy slots are merged
+    @Test
+    void findFreeSlots_MergesBusySlots() {
+        // Arrange
+        when(eventRepository.streamBusySlots(RESOURCE, at(9), at(18))).thenReturn(Stream.of(
+                slot(8, 10), slot(11, 13), slot(12, 14), slot(14, 15), slot(16, 17)));
+
+        // Act
+        List<TimeSlotDto> freeSlots = eventAvailabilityService.findFreeSlots(RESOURCE, at(9), at(18), Duration.ZERO, 10);
+
+        // Assert
+        assertThat(freeSlots).containsExactly(slot(10, 11), slot(15, 16), slot(17, 18));
+    }
+
+    // Gaps shorter than the minimum duration are skipped
+    @Test
+    void findFreeSlots_SkipsShortGaps() {
+        // Arrange
+        when(eventRepository.streamBusySlots(RESOURCE, at(9), at(18))).thenReturn(Stream.of(
+                slot(10, 11), slot(13, 17)));
+
+        // Act
+        List<TimeSlotDto> freeSlots = eventAvailabilityService.findFreeSlots(RESOURCE, at(9), at(18), Duration.ofHours(2), 10);
+
+        // Assert
+        assertThat(freeSlots).containsExactly(slot(11, 13));
+    }
+
+    // Reading stops once the requested number of slots is found
+    @Test
+    void findFreeSlots_StopsAtLimit() {
+        // Arrange
+        AtomicInteger rowsRead = new AtomicInteger();
+        when(eventRepository.streamBusySlots(RESOURCE, at(0), at(24))).thenReturn(Stream.of(
+                        slot(1, 2), slot(3, 4), slot(5, 6), slot(7, 8))
+                .peek(slot -> rowsRead.incrementAndGet()));
+
+        // Act
+        List<TimeSlotDto> freeSlots = eventAvailabilityService.findFreeSlots(RESOURCE, at(0), at(24), Duration.ZERO, 2);
+
+        // Assert
+        assertThat(freeSlots).containsExactly(slot(0, 1), slot(2, 3));
+        assertThat(rowsRead).hasValue(2);
+    }
+
+    // A window without events is one free slot
+    @Test
+    void findFreeSlots_EmptyWindow() {
+        // Arrange
+        when(eventRepository.streamBusySlots(RESOURCE, at(9), at(18))).thenReturn(Stream.empty());
+
+        // Act
+        List<TimeSlotDto> freeSlots = eventAvailabilityService.findFreeSlots(RESOURCE, at(9), at(18), Duration.ZERO, 10);
+
+        // Assert
+        assertThat(freeSlots).containsExactly(slot(9, 18));
+    }
+
+    // Archived events take their time like stored ones when the window starts before the archive horizon
+    @Test
+    void findFreeSlots_IncludesArchivedEvents() {
+        // Arrange
+        when(eventRepository.streamBusySlots(RESOURCE, at(-6), at(6))).thenReturn(Stream.of(slot(2, 3)));
+        when(archivedEventRepository.findResourceEvents(RESOURCE, at(-6), at(6))).thenReturn(List.of(
+                ArchivedEvent.builder().id(1L).resourceId(RESOURCE).startTime(at(-4)).endTime(at(-2)).build()));
+
+        // Act
+        List<TimeSlotDto> freeSlots = eventAvailabilityService.findFreeSlots(RESOURCE, at(-6), at(6), Duration.ZERO, 10);
+
+        // Assert
+        assertThat(freeSlots).containsExactly(slot(-6, -4), slot(-2, 2), slot(3, 6));
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    private static TimeSlotDto slot(int startHour, int endHour) {
+        return new TimeSlotDto(at(startHour), at(endHour));
+    }
+}
@@ -0,0 +1,104 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.Event;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventChangeFeedTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 11, 22, 0, 0);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventChangeFeed.Sink sink = mock(EventChangeFeed.Sink.class);
+    private EventChangeFeed eventChangeFeed;
+
+    @AfterEach
+    void tearDown() {
+        eventChangeFeed.shutdown();
+    }
+
+    // A subscriber whose buffer overflows is disconnected so it can resume from its last id
+    @Test
+    void onEventsCreated_DisconnectsSubscriberOnOverflow() {
+        // Arrange
+        eventChangeFeed = feed(EventChangeFeed.OverflowPolicy.DISCONNECT);
+        eventChangeFeed.subscribe(null, null, null, sink);
+
+        // Act
+        eventChangeFeed.onEventsCreated(new EventsCreatedEvent(List.of(event(1L, 9), event(2L, 10))));
+
+        // Assert
+        assertThat(eventChangeFeed.subscriberCount()).isZero();
+        assertThat(meterRegistry.get("events.stream.overflows").counter().count()).isEqualTo(1.0);
+        verify(sink).close();
+    }
+
+    // With the drop policy the subscriber stays connected and misses the event
+    @Test
+    void onEventsCreated_DropsEventOnOverflow() {
+        // Arrange
+        eventChangeFeed = feed(EventChangeFeed.OverflowPolicy.DROP);
+        eventChangeFeed.subscribe(null, null, null, sink);
+
+        // Act
+        eventChangeFeed.onEventsCreated(new EventsCreatedEvent(List.of(event(1L, 9), event(2L, 10))));
+
+        // Assert
+        assertThat(eventChangeFeed.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("events.stream.overflows").counter().count()).isEqualTo(1.0);
+    }
+
+    // Events outside a subscriber's window never reach its buffer
+    @Test
+    void onEventsCreated_SkipsEventsOutsideWindow() {
+        // Arrange
+        eventChangeFeed = feed(EventChangeFeed.OverflowPolicy.DISCONNECT);
+        eventChangeFeed.subscribe(DAY.plusHours(12), DAY.plusHours(18), null, sink);
+
+        // Act
+        eventChangeFeed.onEventsCreated(new EventsCreatedEvent(List.of(event(1L, 9), event(2L, 10))));
+
+        // Assert
+        assertThat(eventChangeFeed.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("events.stream.overflows").counter().count()).isZero();
+    }
+
+    // A cancelled subscription gets no further events and its sink is left to the transport
+    @Test
+    void cancel_StopsDeliveryWithoutClosingSink() {
+        // Arrange
+        eventChangeFeed = feed(EventChangeFeed.OverflowPolicy.DISCONNECT);
+        EventChangeFeed.Subscription subscription = eventChangeFeed.subscribe(null, null, null, sink);
+
+        // Act
+        subscription.cancel();
+        eventChangeFeed.onEventsCreated(new EventsCreatedEvent(List.of(event(1L, 9))));
+
+        // Assert
+        assertThat(eventChangeFeed.subscriberCount()).isZero();
+        verifyNoInteractions(sink);
+    }
+
+    private EventChangeFeed feed(EventChangeFeed.OverflowPolicy overflowPolicy) {
+        return new EventChangeFeed(mock(EventQueryService.class), new EventMapper(), meterRegistry,
+                1, overflowPolicy, 1);
+    }
+
+    private static Event event(Long id, int startHour) {
+        return Event.builder()
+                .id(id)
+                .name("Event " + id)
+                .startTime(DAY.plusHours(startHour))
+                .endTime(DAY.plusHours(startHour + 1))
+                .build();
+    }
+}
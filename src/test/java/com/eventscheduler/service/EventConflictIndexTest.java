@@ -0,0 +1,138 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.ConflictingEventDto;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventConflictIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 11, 22, 0, 0);
+    private static final String RESOURCE = Event.DEFAULT_RESOURCE_ID;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventConflictIndex eventConflictIndex;
+
+    @BeforeEach
+    void setUp() {
+        eventConflictIndex = new EventConflictIndex(eventRepository, true);
+    }
+
+    // The index is cold until it has been loaded
+    @Test
+    void isReady_FalseBeforeRebuild() {
+        assertThat(eventConflictIndex.isReady()).isFalse();
+    }
+
+    // Overlapping intervals are detected, touching intervals are not
+    @Test
+    void overlaps_MatchesServiceOverlapRules() {
+        when(eventRepository.findAll()).thenReturn(List.of(
+                event(1L, 10, 11),
+                event(2L, 14, 15)));
+
+        eventConflictIndex.rebuild();
+
+        assertThat(eventConflictIndex.isReady()).isTrue();
+        assertThat(eventConflictIndex.overlaps(RESOURCE, DAY.withHour(10).withMinute(30), DAY.withHour(12))).isTrue();
+        assertThat(eventConflictIndex.overlaps(RESOURCE, DAY.withHour(9), DAY.withHour(16))).isTrue();
+        assertThat(eventConflictIndex.overlaps(RESOURCE, DAY.withHour(13), DAY.withHour(14).withMinute(1))).isTrue();
+        assertThat(eventConflictIndex.overlaps(RESOURCE, DAY.withHour(11), DAY.withHour(14))).isFalse();
+        assertThat(eventConflictIndex.overlaps(RESOURCE, DAY.withHour(8), DAY.withHour(10))).isFalse();
+        assertThat(eventConflictIndex.overlaps(RESOURCE, DAY.withHour(15), DAY.withHour(16))).isFalse();
+    }
+
+    // Created events are added to the index
+    @Test
+    void onEventsCreated_AddsEvents() {
+        when(eventRepository.findAll()).thenReturn(List.of());
+        eventConflictIndex.rebuild();
+
+        eventConflictIndex.onEventsCreated(new EventsCreatedEvent(List.of(event(1L, 10, 11))));
+
+        assertThat(eventConflictIndex.size()).isEqualTo(1);
+        assertThat(eventConflictIndex.overlaps(RESOURCE, DAY.withHour(10), DAY.withHour(11))).isTrue();
+    }
+
+    // Overlapping data cannot be represented, so the index marks itself stale
+    @Test
+    void onEventsCreated_OverlapMarksIndexStale() {
+        when(eventRepository.findAll()).thenReturn(List.of(event(1L, 10, 12)));
+        eventConflictIndex.rebuild();
+
+        eventConflictIndex.onEventsCreated(new EventsCreatedEvent(List.of(event(2L, 11, 13))));
+
+        assertThat(eventConflictIndex.isReady()).isFalse();
+    }
+
+    // Overlapping rows in the table leave the index cold
+    @Test
+    void rebuild_OverlappingRowsLeaveIndexCold() {
+        when(eventRepository.findAll()).thenReturn(List.of(
+                event(1L, 10, 12),
+                event(2L, 10, 11)));
+
+        eventConflictIndex.rebuild();
+
+        assertThat(eventConflictIndex.isReady()).isFalse();
+    }
+
+    // The overlapping event is reported by id and name
+    @Test
+    void findOverlap_NamesOverlappingEvent() {
+        when(eventRepository.findAll()).thenReturn(List.of(event(1L, 10, 11), event(2L, 14, 15)));
+
+        eventConflictIndex.rebuild();
+
+        assertThat(eventConflictIndex.findOverlap(RESOURCE, DAY.withHour(14).withMinute(30), DAY.withHour(16)))
+                .contains(new ConflictingEventDto(2L, "Event 2"));
+        assertThat(eventConflictIndex.findOverlap(RESOURCE, DAY.withHour(11), DAY.withHour(14))).isEmpty();
+    }
+
+    // Events of other resources never conflict
+    @Test
+    void overlaps_OnlyWithinResource() {
+        Event otherRoom = event(2L, 10, 11);
+        otherRoom.setResourceId("room-2");
+        when(eventRepository.findAll()).thenReturn(List.of(event(1L, 10, 11), otherRoom));
+
+        eventConflictIndex.rebuild();
+
+        assertThat(eventConflictIndex.isReady()).isTrue();
+        assertThat(eventConflictIndex.overlaps("room-2", DAY.withHour(10), DAY.withHour(11))).isTrue();
+        assertThat(eventConflictIndex.overlaps("room-3", DAY.withHour(10), DAY.withHour(11))).isFalse();
+    }
+
+    // A disabled index never loads
+    @Test
+    void rebuild_DisabledIndexStaysCold() {
+        EventConflictIndex disabledIndex = new EventConflictIndex(eventRepository, false);
+
+        disabledIndex.rebuild();
+
+        assertThat(disabledIndex.isReady()).isFalse();
+        verify(eventRepository, never()).findAll();
+    }
+
+    private Event event(Long id, int startHour, int endHour) {
+        return Event.builder()
+                .id(id)
+                .name("Event " + id)
+                .startTime(DAY.withHour(startHour))
+                .endTime(DAY.withHour(endHour))
+                .build();
+    }
+}
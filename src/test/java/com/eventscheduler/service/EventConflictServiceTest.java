@@ -0,0 +1,174 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.ConflictingEventDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.RecurrenceDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.model.Recurrence;
+import com.eventscheduler.model.RecurrenceFrequency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventConflictServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 11, 22, 0, 0);
+
+    @Mock
+    private EventQueryService eventQueryService;
+
+    @Mock
+    private EventConflictIndex eventConflictIndex;
+
+    @Spy
+    private EventMapper eventMapper = new EventMapper();
+
+    @Spy
+    private EventMetrics eventMetrics = new EventMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private EventConflictService eventConflictService;
+
+    // A loaded index answers without querying the database
+    @Test
+    void findConflict_UsesIndexWhenReady() {
+        EventDto newEvent = dto(10, 11);
+        ConflictingEventDto indexed = new ConflictingEventDto(1L, "Stored");
+        when(eventConflictIndex.isReady()).thenReturn(true);
+        when(eventConflictIndex.findOverlap(Event.DEFAULT_RESOURCE_ID, newEvent.getStartTime(), newEvent.getEndTime()))
+                .thenReturn(Optional.of(indexed));
+
+        assertThat(eventConflictService.findConflict(newEvent)).contains(indexed);
+        verify(eventQueryService, never()).findFirstOverlapping(any(), any(), any());
+    }
+
+    // A cold index falls back to the existence query, which names the first overlapping event
+    @Test
+    void findConflict_FallsBackToDatabaseWhenIndexCold() {
+        EventDto newEvent = dto(10, 11);
+        ConflictingEventDto stored = new ConflictingEventDto(2L, "Stored");
+        when(eventConflictIndex.isReady()).thenReturn(false);
+        when(eventQueryService.findFirstOverlapping(Event.DEFAULT_RESOURCE_ID, newEvent.getStartTime(),
+                newEvent.getEndTime())).thenReturn(Optional.of(stored));
+
+        assertThat(eventConflictService.findConflict(newEvent)).contains(stored);
+        verify(eventQueryService, never()).findSeriesInRange(any(), any(), any());
+        verify(eventConflictIndex, never()).findOverlap(any(), any(), any());
+    }
+
+    // The stored check reads the database even when a loaded index knows no conflict
+    @Test
+    void findStoredConflict_IgnoresIndex() {
+        EventDto newEvent = dto(10, 11);
+        ConflictingEventDto stored = new ConflictingEventDto(3L, "Stored elsewhere");
+        when(eventQueryService.findFirstOverlapping(Event.DEFAULT_RESOURCE_ID, newEvent.getStartTime(),
+                newEvent.getEndTime())).thenReturn(Optional.of(stored));
+
+        assertThat(eventConflictService.findStoredConflict(newEvent)).contains(stored);
+        verify(eventConflictIndex, never()).findOverlap(any(), any(), any());
+    }
+
+    // Without an overlapping single event, stored series reaching the interval are checked by arithmetic
+    @Test
+    void findConflict_ChecksStoredSeriesWhenNoSingleEventOverlaps() {
+        EventDto newEvent = dto(10, 11);
+        newEvent.setStartTime(newEvent.getStartTime().plusDays(3));
+        newEvent.setEndTime(newEvent.getEndTime().plusDays(3));
+        Event standup = event(9, 10);
+        standup.setId(3L);
+        standup.setRecurrence(Recurrence.builder().frequency(RecurrenceFrequency.DAILY).interval(1).count(10).build());
+        Event review = event(10, 12);
+        review.setId(4L);
+        review.setName("Review");
+        review.setRecurrence(Recurrence.builder().frequency(RecurrenceFrequency.DAILY).interval(1).count(10).build());
+        when(eventConflictIndex.isReady()).thenReturn(false);
+        when(eventQueryService.findFirstOverlapping(any(), any(), any())).thenReturn(Optional.empty());
+        when(eventQueryService.findSeriesInRange(Event.DEFAULT_RESOURCE_ID, newEvent.getStartTime(),
+                newEvent.getEndTime())).thenReturn(List.of(standup, review));
+
+        assertThat(eventConflictService.findConflict(newEvent)).contains(new ConflictingEventDto(4L, "Review"));
+    }
+
+    // A recurring candidate is checked against stored rows over its span, never the index
+    @Test
+    void hasConflict_RecurringCandidate() {
+        EventDto newSeries = dto(10, 11);
+        newSeries.setRecurrence(RecurrenceDto.builder()
+                .frequency(RecurrenceFrequency.DAILY)
+                .count(30)
+                .build());
+        // Overlaps the occurrence on day 20 only
+        Event stored = event(10, 11);
+        stored.setStartTime(stored.getStartTime().plusDays(20).plusMinutes(30));
+        stored.setEndTime(stored.getEndTime().plusDays(20).plusMinutes(30));
+        when(eventQueryService.findStoredEventsInRange(
+                Event.DEFAULT_RESOURCE_ID, DAY.withHour(10), DAY.withHour(11).plusDays(29)))
+                .thenReturn(List.of(event(11, 12), stored));
+
+        assertThat(eventConflictService.hasConflict(newSeries)).isTrue();
+        verify(eventConflictIndex, never()).isReady();
+    }
+
+    // Candidates overlapping stored events conflict, touching ones do not
+    @Test
+    void findBatchConflicts_AgainstStoredEvents() {
+        List<EventDto> candidates = List.of(dto(9, 10), dto(10, 12), dto(12, 13), dto(7, 16));
+        List<Event> stored = List.of(event(11, 12), event(8, 9));
+
+        BitSet conflicts = eventConflictService.findBatchConflicts(candidates, stored);
+
+        assertThat(conflicts.stream().toArray()).containsExactly(1, 3);
+    }
+
+    // Within the batch the earliest-starting candidate wins
+    @Test
+    void findBatchConflicts_WithinBatch() {
+        List<EventDto> candidates = List.of(dto(11, 13), dto(9, 12), dto(13, 14), dto(8, 9));
+
+        BitSet conflicts = eventConflictService.findBatchConflicts(candidates, List.of());
+
+        assertThat(conflicts.stream().toArray()).containsExactly(0);
+    }
+
+    // A long stored event is found even when shorter ones start after it
+    @Test
+    void findBatchConflicts_LongStoredEvent() {
+        List<EventDto> candidates = List.of(dto(14, 15));
+        List<Event> stored = List.of(event(13, 14), event(8, 18), event(10, 11));
+
+        BitSet conflicts = eventConflictService.findBatchConflicts(candidates, stored);
+
+        assertThat(conflicts.get(0)).isTrue();
+    }
+
+    private EventDto dto(int startHour, int endHour) {
+        return EventDto.builder()
+                .name("Candidate")
+                .startTime(DAY.withHour(startHour))
+                .endTime(DAY.withHour(endHour))
+                .build();
+    }
+
+    private Event event(int startHour, int endHour) {
+        return Event.builder()
+                .name("Stored")
+                .startTime(DAY.withHour(startHour))
+                .endTime(DAY.withHour(endHour))
+                .build();
+    }
+}
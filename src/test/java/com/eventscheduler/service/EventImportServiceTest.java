@@ -0,0 +1,111 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventBatchResultDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.EventImportRejectionDto;
+import com.eventscheduler.dto.EventImportReportDto;
+import com.eventscheduler.model.EventImportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "event-scheduler.import.chunk-size=2")
+class EventImportServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2031, 3, 10, 0, 0);
+
+    @Autowired
+    private EventImportService eventImportService;
+
+    @Autowired
+    private EventService eventService;
+
+    // Valid rows are created; invalid rows and conflicts with stored events or earlier rows are reported by line
+    @Test
+    void importEvents_Csv_ReportsRejectedLines() {
+        // Arrange
+        eventService.createEvent(EventDto.builder()
+                .name("Stored").resourceId("import-csv").startTime(DAY.withHour(8)).endTime(DAY.withHour(9)).build());
+        String csv = """
+                name,startTime,endTime,resourceId
+                Planning,2031-03-10T09:00:00,2031-03-10T10:00:00,import-csv
+                Overlaps stored,2031-03-10T08:30:00,2031-03-10T09:00:00,import-csv
+                Backwards,2031-03-10T12:00:00,2031-03-10T11:00:00,import-csv
+
+                "Review, final",2031-03-10T10:00:00,2031-03-10T11:00:00,import-csv
+                Overlaps planning,2031-03-10T09:30:00,2031-03-10T10:30:00,import-csv
+                Bad time,10 March,2031-03-10T11:00:00,import-csv
+                """;
+
+        // Act
+        EventImportReportDto report = eventImportService.importEvents(null, EventImportFormat.CSV, stream(csv));
+
+        // Assert
+        assertThat(report.isCompleted()).isTrue();
+        assertThat(report.getLinesRead()).isEqualTo(8);
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getConflicts()).isEqualTo(2);
+        assertThat(report.getInvalid()).isEqualTo(2);
+        assertThat(report.getRejections())
+                .extracting(EventImportRejectionDto::getLine, EventImportRejectionDto::getStatus)
+                .containsExactly(
+                        tuple(3L, EventBatchResultDto.Status.CONFLICT),
+                        tuple(4L, EventBatchResultDto.Status.INVALID),
+                        tuple(7L, EventBatchResultDto.Status.CONFLICT),
+                        tuple(8L, EventBatchResultDto.Status.INVALID));
+        assertThat(eventService.getEvents("import-csv", DAY, DAY.plusDays(1)))
+                .extracting(EventDto::getName)
+                .containsExactlyInAnyOrder("Stored", "Planning", "Review, final");
+    }
+
+    // An import that fails part way resumes after its last committed chunk without creating duplicates
+    @Test
+    void importEvents_ResumesAfterFailure() {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int hour = 0; hour < 10; hour++) {
+            ndjson.append("{\"name\":\"Hour ").append(hour).append("\",\"resourceId\":\"import-resume\",")
+                    .append("\"startTime\":\"").append(DAY.plusDays(1).withHour(hour)).append("\",")
+                    .append("\"endTime\":\"").append(DAY.plusDays(1).withHour(hour + 1)).append("\"}\n");
+        }
+        byte[] file = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+        InputStream failing = new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position == file.length / 2) {
+                    throw new IOException("Connection reset");
+                }
+                return file[position++] & 0xff;
+            }
+        };
+
+        // Act
+        EventImportReportDto failed = eventImportService.importEvents("resume-" + DAY, EventImportFormat.NDJSON,
+                failing);
+        EventImportReportDto resumed = eventImportService.importEvents(failed.getImportId(),
+                EventImportFormat.NDJSON, new ByteArrayInputStream(file));
+
+        // Assert
+        assertThat(failed.isCompleted()).isFalse();
+        assertThat(failed.getCreated()).isEqualTo(failed.getLinesRead()).isLessThan(10);
+        assertThat(resumed.isCompleted()).isTrue();
+        assertThat(resumed.getCreated()).isEqualTo(10);
+        assertThat(resumed.getConflicts()).isZero();
+        assertThat(eventService.getEvents("import-resume", DAY.plusDays(1), DAY.plusDays(2))).hasSize(10);
+        assertThat(eventImportService.getImport(failed.getImportId()).isCompleted()).isTrue();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
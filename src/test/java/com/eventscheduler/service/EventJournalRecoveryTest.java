@@ -0,0 +1,165 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.EventSchedulerApplication;
+import com.eventscheduler.dto.EventBatchResultDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.exception.ConflictException;
+import com.eventscheduler.repository.ArchivedEventRepository;
+import com.eventscheduler.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventJournalRecoveryTest {
+
+    private static final String RESOURCE = "journal-room";
+    private static final LocalDateTime DAY = LocalDateTime.of(2032, 5, 4, 0, 0);
+
+    @TempDir
+    private Path journalDirectory;
+
+    @TempDir
+    private Path crashDirectory;
+
+    // Every acknowledged event survives a restart from the snapshot and the log written after it,
+    // a record torn by the crash is dropped, and conflicts, occupancy and ids carry on where they stopped
+    @Test
+    void restart_RecoversAcknowledgedEvents() throws IOException {
+        // Arrange
+        List<EventDto> acknowledged = new ArrayList<>();
+        try (ConfigurableApplicationContext context = start()) {
+            EventService eventService = context.getBean(EventService.class);
+            acknowledged.add(eventService.createEvent(event("Before snapshot", 8)));
+            context.getBean(EventJournal.class).snapshot();
+            acknowledged.add(eventService.createEvent(event("After snapshot", 10)));
+            eventService.createEvents(List.of(event("Batch 1", 12), event("Batch 2", 14))).stream()
+                    .map(EventBatchResultDto::getEvent)
+                    .forEach(acknowledged::add);
+            crash();
+        }
+        tearLastRecord();
+
+        // Act
+        try (ConfigurableApplicationContext context = start(crashDirectory)) {
+            EventService eventService = context.getBean(EventService.class);
+
+            // Assert
+            assertThat(eventService.getEvents(RESOURCE, DAY, DAY.plusDays(1)))
+                    .containsExactlyInAnyOrderElementsOf(acknowledged);
+            assertThat(eventService.getOccupancy(RESOURCE, DAY, DAY.plusDays(1), "day"))
+                    .containsExactly(new OccupancyBucketDto(DAY, 4, 240));
+            assertThatThrownBy(() -> eventService.createEvent(event("Overlaps batch", 12)))
+                    .isInstanceOf(ConflictException.class);
+            EventDto next = eventService.createEvent(event("After restart", 16));
+            assertThat(next.getId()).isGreaterThan(acknowledged.stream().mapToLong(EventDto::getId).max().orElseThrow());
+        }
+    }
+
+    // Events archived before the crash come back in the archive, not in the hot table
+    @Test
+    void restart_RecoversArchivedEvents() throws IOException {
+        // Arrange
+        LocalDateTime past = LocalDateTime.now().minusYears(1).withNano(0);
+        Long pastId;
+        try (ConfigurableApplicationContext context = start()) {
+            pastId = context.getBean(EventService.class).createEvent(EventDto.builder()
+                    .name("Past").resourceId(RESOURCE).startTime(past).endTime(past.plusHours(1)).build()).getId();
+            context.getBean(EventArchiver.class).archivePastEvents();
+            crash();
+        }
+
+        // Act
+        try (ConfigurableApplicationContext context = start(crashDirectory)) {
+
+            // Assert
+            assertThat(context.getBean(EventRepository.class).findById(pastId)).isEmpty();
+            assertThat(context.getBean(ArchivedEventRepository.class).findById(pastId)).isPresent();
+        }
+    }
+
+    // Restoring would overwrite a database that outlives the process, so the journal refuses to start
+    @Test
+    void start_RefusesPersistentDatabase() {
+        String url = "jdbc:h2:file:" + crashDirectory.resolve("events");
+
+        assertThatThrownBy(() -> start(journalDirectory, url).close())
+                .hasStackTraceContaining("in-memory H2 database");
+    }
+
+    private ConfigurableApplicationContext start() {
+        return start(journalDirectory);
+    }
+
+    private ConfigurableApplicationContext start(Path directory) {
+        return start(directory, "jdbc:h2:mem:journal-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    private ConfigurableApplicationContext start(Path directory, String url) {
+        // Command line arguments, since default properties lose to application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EventSchedulerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.main.banner-mode=off",
+                        "--event-scheduler.journal.enabled=true",
+                        "--event-scheduler.journal.directory=" + directory,
+                        "--event-scheduler.journal.region-bytes=65536",
+                        "--event-scheduler.archive.initial-delay-ms=3600000");
+        assertThat(context.getBean(EventJournal.class).isEnabled()).isTrue();
+        return context;
+    }
+
+    /**
+     * Copies the journal as the process leaves it on disk while still running. Closing the
+     * context forces the log, which a crash does not.
+     */
+    private void crash() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, crashDirectory.resolve(file.getFileName()));
+            }
+        }
+    }
+
+    /**
+     * Writes the start of a record after the last complete one, as a crash in the middle of
+     * an append would leave it.
+     */
+    private void tearLastRecord() throws IOException {
+        Path wal;
+        try (Stream<Path> files = Files.list(crashDirectory)) {
+            wal = files.filter(file -> file.getFileName().toString().startsWith("wal-")).max(Path::compareTo)
+                    .orElseThrow();
+        }
+        long end = EventJournalLog.read(wal, payload -> {
+        });
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(16).putInt(200).putInt(12345).putLong(42).flip(), end);
+        }
+    }
+
+    private static EventDto event(String name, int hour) {
+        return EventDto.builder()
+                .name(name)
+                .resourceId(RESOURCE)
+                .startTime(DAY.withHour(hour))
+                .endTime(DAY.withHour(hour + 1))
+                .build();
+    }
+}
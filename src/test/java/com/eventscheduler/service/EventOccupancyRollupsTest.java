@@ -0,0 +1,141 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.OccupancyBucketDto;
+import com.eventscheduler.dto.RecurrenceDto;
+import com.eventscheduler.exception.BadRequestException;
+import com.eventscheduler.model.RecurrenceFrequency;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class EventOccupancyRollupsTest {
+
+    private static final String RESOURCE = "occupancy-room";
+    private static final LocalDateTime DAY = LocalDateTime.of(2035, 6, 4, 0, 0);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventOccupancyRollups eventOccupancyRollups;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Events count once in every bucket they overlap, with the minutes falling in that bucket
+    @Test
+    void getOccupancy_SplitsEventsAcrossBuckets() {
+        // Arrange
+        eventService.createEvent(event(RESOURCE, DAY.withHour(9).withMinute(30), DAY.withHour(11)));
+        eventService.createEvent(event(RESOURCE, DAY.withHour(13), DAY.withHour(13).withMinute(45)));
+        eventService.createEvent(event(RESOURCE, DAY.withHour(23), DAY.plusDays(1).withHour(1)));
+
+        // Act
+        List<OccupancyBucketDto> hours = eventService.getOccupancy(RESOURCE, DAY.withHour(9), DAY.withHour(14), "hour");
+        List<OccupancyBucketDto> days = eventService.getOccupancy(RESOURCE, DAY, DAY.plusDays(3), "DAY");
+
+        // Assert
+        assertThat(hours).containsExactly(
+                new OccupancyBucketDto(DAY.withHour(9), 1, 30),
+                new OccupancyBucketDto(DAY.withHour(10), 1, 60),
+                new OccupancyBucketDto(DAY.withHour(11), 0, 0),
+                new OccupancyBucketDto(DAY.withHour(12), 0, 0),
+                new OccupancyBucketDto(DAY.withHour(13), 1, 45));
+        assertThat(days).containsExactly(
+                new OccupancyBucketDto(DAY, 3, 195),
+                new OccupancyBucketDto(DAY.plusDays(1), 1, 60),
+                new OccupancyBucketDto(DAY.plusDays(2), 0, 0));
+    }
+
+    // Recurring occurrences and batches are counted, and without a resource every resource is summed
+    @Test
+    void getOccupancy_CountsOccurrencesAndResources() {
+        // Arrange
+        LocalDateTime day = DAY.plusDays(10);
+        EventDto daily = event(RESOURCE, day.withHour(8), day.withHour(9));
+        daily.setRecurrence(RecurrenceDto.builder().frequency(RecurrenceFrequency.DAILY).count(3).build());
+        eventService.createEvent(daily);
+        eventService.createEvents(List.of(
+                event("occupancy-hall", day.withHour(8), day.withHour(10)),
+                event("occupancy-hall", day.plusDays(1).withHour(8), day.plusDays(1).withHour(8).withMinute(20))));
+
+        // Act
+        List<OccupancyBucketDto> room = eventService.getOccupancy(RESOURCE, day, day.plusDays(4), "day");
+        List<OccupancyBucketDto> all = eventService.getOccupancy(null, day, day.plusDays(4), "day");
+
+        // Assert
+        assertThat(room).extracting(OccupancyBucketDto::getEventCount).containsExactly(1L, 1L, 1L, 0L);
+        assertThat(all).containsExactly(
+                new OccupancyBucketDto(day, 2, 180),
+                new OccupancyBucketDto(day.plusDays(1), 2, 80),
+                new OccupancyBucketDto(day.plusDays(2), 1, 60),
+                new OccupancyBucketDto(day.plusDays(3), 0, 0));
+    }
+
+    // Occurrences of a series are expanded when read, so they are counted however far the range is
+    @Test
+    void getOccupancy_CountsOccurrencesBeyondAYear() {
+        // Arrange
+        LocalDateTime start = DAY.plusDays(40).withHour(9);
+        EventDto weekly = event("occupancy-series", start, start.plusHours(1));
+        weekly.setRecurrence(RecurrenceDto.builder().frequency(RecurrenceFrequency.WEEKLY).count(60).build());
+        eventService.createEvent(weekly);
+        LocalDateTime lastWeek = start.plusWeeks(59).toLocalDate().atStartOfDay();
+
+        // Act
+        List<OccupancyBucketDto> days =
+                eventService.getOccupancy("occupancy-series", lastWeek, lastWeek.plusDays(8), "day");
+
+        // Assert
+        assertThat(days).extracting(OccupancyBucketDto::getEventCount).containsExactly(1L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+        assertThat(days.get(0).getBookedMinutes()).isEqualTo(60);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_occupancy_rollups WHERE resource_id = ?",
+                Integer.class, "occupancy-series")).isZero();
+    }
+
+    // Rebuilding from the tables gives the rows the creates wrote
+    @Test
+    void rebuild_MatchesIncrementalRollups() {
+        // Arrange
+        LocalDateTime day = DAY.plusDays(20);
+        eventService.createEvent(event(RESOURCE, day.withHour(10), day.withHour(12)));
+        List<OccupancyBucketDto> incremental = eventService.getOccupancy(null, DAY, DAY.plusDays(30), "day");
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_occupancy_rollups", Integer.class);
+
+        // Act
+        eventOccupancyRollups.rebuild();
+
+        // Assert
+        assertThat(eventService.getOccupancy(null, DAY, DAY.plusDays(30), "day")).isEqualTo(incremental);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_occupancy_rollups", Integer.class))
+                .isEqualTo(rows);
+    }
+
+    // Unknown granularities and ranges with too many buckets are rejected
+    @Test
+    void getOccupancy_RejectsInvalidRequests() {
+        assertThatThrownBy(() -> eventService.getOccupancy(RESOURCE, DAY, DAY.plusDays(1), "week"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> eventService.getOccupancy(RESOURCE, DAY, DAY.plusYears(2), "hour"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> eventService.getOccupancy(RESOURCE, DAY.plusDays(1), DAY, "day"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static EventDto event(String resourceId, LocalDateTime start, LocalDateTime end) {
+        return EventDto.builder()
+                .name("Occupancy " + start)
+                .resourceId(resourceId)
+                .startTime(start)
+                .endTime(end)
+                .build();
+    }
+}
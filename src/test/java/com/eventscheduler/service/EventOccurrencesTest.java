@@ -0,0 +1,84 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.model.Event;
+import com.eventscheduler.model.Recurrence;
+import com.eventscheduler.model.RecurrenceFrequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventOccurrencesTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 11, 18, 0, 0);
+
+    // Only the occurrences inside the window are generated
+    @Test
+    void expand_OnlyWithinWindow() {
+        Event standup = series(RecurrenceFrequency.DAILY, 1, 365, null);
+
+        List<Event> occurrences = EventOccurrences.expand(standup, DAY.plusDays(100), DAY.plusDays(102).withHour(9));
+
+        assertThat(occurrences).extracting(Event::getStartTime).containsExactly(
+                DAY.plusDays(100).withHour(9), DAY.plusDays(101).withHour(9), DAY.plusDays(102).withHour(9));
+        assertThat(occurrences).allMatch(occurrence -> occurrence.getId().equals(standup.getId()));
+    }
+
+    // Until bounds the start of the last occurrence
+    @Test
+    void expand_StopsAtUntil() {
+        Event weekly = series(RecurrenceFrequency.WEEKLY, 2, null, DAY.plusDays(28).withHour(9));
+
+        List<Event> occurrences = EventOccurrences.expand(weekly, DAY, DAY.plusYears(1));
+
+        assertThat(occurrences).extracting(Event::getStartTime).containsExactly(
+                DAY.withHour(9), DAY.plusDays(14).withHour(9), DAY.plusDays(28).withHour(9));
+        assertThat(weekly.lastOccurrenceEnd()).isEqualTo(DAY.plusDays(28).withHour(10));
+    }
+
+    // A single interval is checked against the one occurrence that can reach it
+    @Test
+    void overlaps_SeriesAndInterval() {
+        Event standup = series(RecurrenceFrequency.DAILY, 1, 365, null);
+        LocalDateTime day200 = DAY.plusDays(200);
+
+        assertThat(EventOccurrences.overlaps(standup, day200.withHour(9).plusMinutes(30), day200.withHour(11))).isTrue();
+        assertThat(EventOccurrences.overlaps(standup, day200.withHour(10), day200.withHour(11))).isFalse();
+        assertThat(EventOccurrences.overlaps(standup, DAY.plusDays(400).withHour(9), DAY.plusDays(400).withHour(10)))
+                .isFalse();
+    }
+
+    // Two series conflict only when some pair of occurrences overlaps
+    @Test
+    void overlaps_TwoSeries() {
+        Event everyOtherDay = series(RecurrenceFrequency.DAILY, 2, 100, null);
+        Event oddDays = Event.builder()
+                .id(2L)
+                .name("Odd days")
+                .startTime(DAY.plusDays(1).withHour(9))
+                .endTime(DAY.plusDays(1).withHour(10))
+                .recurrence(Recurrence.builder().frequency(RecurrenceFrequency.DAILY).interval(2).count(100).build())
+                .build();
+        Event weekly = series(RecurrenceFrequency.WEEKLY, 1, 10, null);
+
+        assertThat(EventOccurrences.overlaps(everyOtherDay, oddDays)).isFalse();
+        assertThat(EventOccurrences.overlaps(oddDays, weekly)).isTrue();
+    }
+
+    private static Event series(RecurrenceFrequency frequency, int interval, Integer count, LocalDateTime until) {
+        return Event.builder()
+                .id(1L)
+                .name("Standup")
+                .startTime(DAY.withHour(9))
+                .endTime(DAY.withHour(10))
+                .recurrence(Recurrence.builder()
+                        .frequency(frequency)
+                        .interval(interval)
+                        .count(count)
+                        .until(until)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.VersionedEventDto;
+import com.eventscheduler.model.Event;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventQueryCacheTest {
+
+    private static final LocalDateTime WEEK = LocalDateTime.of(2024, 11, 18, 0, 0);
+
+    private MeterRegistry meterRegistry;
+    private EventQueryCache eventQueryCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventQueryCache = new EventQueryCache(meterRegistry, 100, 600, 100, 600);
+    }
+
+    // Repeated window reads are served from the cache
+    @Test
+    void getInWindow_LoadsOnce() {
+        AtomicInteger loads = new AtomicInteger();
+
+        eventQueryCache.getInWindow(null, WEEK, WEEK.plusDays(7), () -> load(loads));
+        eventQueryCache.getInWindow(null, WEEK, WEEK.plusDays(7), () -> load(loads));
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "events-by-window").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    // A new event only drops the windows it overlaps
+    @Test
+    void onEventsCreated_DropsOverlappingWindowsOnly() {
+        AtomicInteger thisWeekLoads = new AtomicInteger();
+        AtomicInteger nextWeekLoads = new AtomicInteger();
+        eventQueryCache.getInWindow(null, WEEK, WEEK.plusDays(7), () -> load(thisWeekLoads));
+        eventQueryCache.getInWindow(null, WEEK.plusDays(7), WEEK.plusDays(14), () -> load(nextWeekLoads));
+
+        eventQueryCache.onEventsCreated(new EventsCreatedEvent(List.of(Event.builder()
+                .id(1L)
+                .name("Team Meeting")
+                .startTime(WEEK.plusDays(2))
+                .endTime(WEEK.plusDays(2).plusHours(1))
+                .build())));
+        eventQueryCache.getInWindow(null, WEEK, WEEK.plusDays(7), () -> load(thisWeekLoads));
+        eventQueryCache.getInWindow(null, WEEK.plusDays(7), WEEK.plusDays(14), () -> load(nextWeekLoads));
+
+        assertThat(thisWeekLoads).hasValue(2);
+        assertThat(nextWeekLoads).hasValue(1);
+    }
+
+    // A new event keeps the windows of other resources
+    @Test
+    void onEventsCreated_KeepsWindowsOfOtherResources() {
+        AtomicInteger roomOneLoads = new AtomicInteger();
+        AtomicInteger roomTwoLoads = new AtomicInteger();
+        eventQueryCache.getInWindow("room-1", WEEK, WEEK.plusDays(7), () -> load(roomOneLoads));
+        eventQueryCache.getInWindow("room-2", WEEK, WEEK.plusDays(7), () -> load(roomTwoLoads));
+
+        eventQueryCache.onEventsCreated(new EventsCreatedEvent(List.of(Event.builder()
+                .id(1L)
+                .name("Team Meeting")
+                .resourceId("room-1")
+                .startTime(WEEK.plusDays(2))
+                .endTime(WEEK.plusDays(2).plusHours(1))
+                .build())));
+        eventQueryCache.getInWindow("room-1", WEEK, WEEK.plusDays(7), () -> load(roomOneLoads));
+        eventQueryCache.getInWindow("room-2", WEEK, WEEK.plusDays(7), () -> load(roomTwoLoads));
+
+        assertThat(roomOneLoads).hasValue(2);
+        assertThat(roomTwoLoads).hasValue(1);
+    }
+
+    // Missing events are not cached, so they are found once created
+    @Test
+    void getById_DoesNotCacheMisses() {
+        AtomicInteger loads = new AtomicInteger();
+
+        eventQueryCache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<VersionedEventDto> result = eventQueryCache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(new VersionedEventDto(EventDto.builder().id(id).name("Team Meeting").build(),
+                    LocalDateTime.now()));
+        });
+
+        assertThat(result).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    // An archived event is loaded again, from the archive, and the windows it overlaps are dropped
+    @Test
+    void onEventsArchived_DropsEventAndOverlappingWindows() {
+        AtomicInteger byIdLoads = new AtomicInteger();
+        AtomicInteger windowLoads = new AtomicInteger();
+        eventQueryCache.getById(1L, id -> loadEvent(byIdLoads, id));
+        eventQueryCache.getInWindow(null, WEEK, WEEK.plusDays(7), () -> load(windowLoads));
+
+        eventQueryCache.onEventsArchived(new EventsArchivedEvent(List.of(Event.builder()
+                .id(1L)
+                .name("Team Meeting")
+                .startTime(WEEK.plusDays(2))
+                .endTime(WEEK.plusDays(2).plusHours(1))
+                .build())));
+        eventQueryCache.getById(1L, id -> loadEvent(byIdLoads, id));
+        eventQueryCache.getInWindow(null, WEEK, WEEK.plusDays(7), () -> load(windowLoads));
+
+        assertThat(byIdLoads).hasValue(2);
+        assertThat(windowLoads).hasValue(2);
+    }
+
+    private Optional<VersionedEventDto> loadEvent(AtomicInteger loads, Long id) {
+        loads.incrementAndGet();
+        return Optional.of(new VersionedEventDto(EventDto.builder().id(id).name("Team Meeting").build(),
+                LocalDateTime.now()));
+    }
+
+    private List<EventDto> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return List.of();
+    }
+}
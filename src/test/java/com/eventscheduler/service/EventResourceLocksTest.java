@@ -0,0 +1,154 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.RecurrenceDto;
+import com.eventscheduler.exception.ConflictException;
+import com.eventscheduler.model.RecurrenceFrequency;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs without admission locks and without the conflict index, so concurrent creates behave
+ * like creates arriving at different instances and only the resource lock rows keep them apart.
+ */
+@SpringBootTest(properties = {
+        "event-scheduler.admission.enabled=false",
+        "event-scheduler.conflict-index.enabled=false"
+})
+class EventResourceLocksTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2031, 3, 3, 0, 0);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Racing overlapping creates that all pass the conflict check still store only one event
+    @Test
+    void createEvent_OverlappingRequestsWithoutLocksNeverDoubleBook() throws Exception {
+        LocalDateTime slot = DAY.withHour(9);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            LocalDateTime start = slot.plusMinutes(15L * (i % 4));
+            attempts.add(() -> tryCreate("room-1", start, start.plusHours(1)));
+        }
+
+        int created = runConcurrently(attempts);
+
+        assertThat(created).isEqualTo(1);
+        assertThat(storedEvents("room-1")).isEqualTo(1);
+    }
+
+    // Touching events, also between whole minutes, and events of other resources are accepted
+    @Test
+    void createEvent_TouchingAndOtherResourceEventsAreAccepted() {
+        assertThat(tryCreate("room-2", DAY.withHour(9), DAY.withHour(10).withSecond(30))).isTrue();
+        assertThat(tryCreate("room-2", DAY.withHour(10).withSecond(30), DAY.withHour(11))).isTrue();
+        assertThat(tryCreate("room-3", DAY.withHour(9), DAY.withHour(10))).isTrue();
+        assertThat(tryCreate("room-2", DAY.withHour(10).withMinute(59), DAY.withHour(12))).isFalse();
+    }
+
+    // A long event and a series write a single lock row for their resource
+    @Test
+    void createEvent_LongEventsWriteOneLockRow() {
+        LocalDateTime start = DAY.plusDays(10);
+
+        assertThat(tryCreate("room-5", start, start.plusDays(400))).isTrue();
+        assertThat(tryCreateSeries("room-5", start.plusDays(500), 1000)).isTrue();
+
+        assertThat(storedEvents("room-5")).isEqualTo(2);
+        assertThat(lockRows("room-5")).isEqualTo(1);
+    }
+
+    // An event overlapping a late occurrence of a series is refused
+    @Test
+    void createEvent_OverlappingLateOccurrenceIsRejected() {
+        LocalDateTime start = DAY.withHour(9);
+        assertThat(tryCreateSeries("room-4", start, 1000)).isTrue();
+
+        LocalDateTime lateOccurrence = start.plusDays(900);
+        assertThat(tryCreate("room-4", lateOccurrence.plusMinutes(30), lateOccurrence.plusHours(2))).isFalse();
+        assertThat(tryCreate("room-4", lateOccurrence.plusHours(1), lateOccurrence.plusHours(2))).isTrue();
+    }
+
+    private boolean tryCreate(String resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        try {
+            eventService.createEvent(EventDto.builder()
+                    .name("Locked " + startTime)
+                    .resourceId(resourceId)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .build());
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+
+    private boolean tryCreateSeries(String resourceId, LocalDateTime startTime, int count) {
+        try {
+            eventService.createEvent(EventDto.builder()
+                    .name("Daily " + startTime)
+                    .resourceId(resourceId)
+                    .startTime(startTime)
+                    .endTime(startTime.plusHours(1))
+                    .recurrence(RecurrenceDto.builder().frequency(RecurrenceFrequency.DAILY).interval(1).count(count)
+                            .build())
+                    .build());
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+
+    private int runConcurrently(List<Callable<Boolean>> attempts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> attempt : attempts) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return attempt.call();
+                }));
+            }
+            startSignal.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+            return created;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int lockRows(String resourceId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_resource_locks WHERE resource_id = ?",
+                Integer.class, resourceId);
+    }
+
+    private int storedEvents(String resourceId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM events WHERE resource_id = ?", Integer.class,
+                resourceId);
+    }
+}
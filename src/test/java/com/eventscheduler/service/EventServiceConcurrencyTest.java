@@ -0,0 +1,176 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.exception.ConflictException;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class EventServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @SpyBean
+    private EventConflictIndex eventConflictIndex;
+
+    @SpyBean
+    private EventResourceLocks eventResourceLocks;
+
+    // Many concurrent creates for mutually overlapping slots admit exactly one event
+    @Test
+    void createEvent_OverlappingRequestsNeverDoubleBook() throws Exception {
+        LocalDateTime slot = LocalDateTime.of(2030, 1, 7, 9, 0);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            // Shifted by up to 45 minutes so every pair of one-hour requests overlaps
+            LocalDateTime start = slot.plusMinutes(15L * (i % 4));
+            attempts.add(() -> tryCreate("Overlapping " + start, start, start.plusHours(1)));
+        }
+
+        int created = runConcurrently(attempts);
+
+        assertThat(created).isEqualTo(1);
+        assertNoOverlaps(slot.minusHours(1), slot.plusHours(3));
+    }
+
+    // Repeated rounds of racing requests for the same day never store overlapping events
+    @Test
+    void createEvent_RandomisedRequestsNeverDoubleBook() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2030, 1, 8, 0, 0);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime start = day.plusMinutes(10L * ((i * 37) % 130));
+            long minutes = 20 + (i * 13) % 100;
+            attempts.add(() -> tryCreate("Random " + start, start, start.plusMinutes(minutes)));
+        }
+
+        int created = runConcurrently(attempts);
+
+        assertThat(created).isPositive();
+        assertNoOverlaps(day, day.plusDays(1));
+    }
+
+    // Creates in separate buckets do not conflict with each other
+    @Test
+    void createEvent_NonOverlappingRequestsAllSucceed() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2030, 1, 9, 0, 0);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            LocalDateTime start = day.plusHours(hour);
+            attempts.add(() -> tryCreate("Hourly " + start, start, start.plusHours(1)));
+        }
+
+        int created = runConcurrently(attempts);
+
+        assertThat(created).isEqualTo(24);
+        assertNoOverlaps(day, day.plusDays(1));
+    }
+
+    // A create waiting for the stripes of a committing create finds its event in the conflict index
+    @Test
+    void createEvent_WaitingRequestSeesCommittedEventInIndex() throws Exception {
+        LocalDateTime slot = LocalDateTime.of(2030, 1, 10, 9, 0);
+        CountDownLatch indexing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            indexing.countDown();
+            // A slow index update, which a create let through by released stripes would overtake
+            Thread.sleep(300);
+            return invocation.callRealMethod();
+        }).when(eventConflictIndex).onEventsCreated(any());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> first = executor.submit(() -> tryCreate("First in slot", slot, slot.plusHours(1)));
+            assertThat(indexing.await(30, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> eventService.createEvent(EventDto.builder()
+                    .name("Second in slot")
+                    .startTime(slot.plusMinutes(30))
+                    .endTime(slot.plusMinutes(90))
+                    .build()))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("existing event 'First in slot'");
+            assertThat(first.get(30, TimeUnit.SECONDS)).isTrue();
+            // Refused by the index, the second create never reached the database check under the resource lock
+            verify(eventResourceLocks, times(1)).lock(any());
+        } finally {
+            executor.shutdownNow();
+            reset(eventConflictIndex, eventResourceLocks);
+        }
+    }
+
+    private boolean tryCreate(String name, LocalDateTime startTime, LocalDateTime endTime) {
+        try {
+            eventService.createEvent(EventDto.builder()
+                    .name(name)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .build());
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+
+    private int runConcurrently(List<Callable<Boolean>> attempts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> attempt : attempts) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return attempt.call();
+                }));
+            }
+            startSignal.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+            return created;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertNoOverlaps(LocalDateTime from, LocalDateTime to) {
+        List<Event> events = new ArrayList<>(eventRepository.findEvents(from, to));
+        events.sort(Comparator.comparing(Event::getStartTime));
+        for (int i = 1; i < events.size(); i++) {
+            assertThat(events.get(i).getStartTime())
+                    .as("event %d overlaps event %d", events.get(i).getId(), events.get(i - 1).getId())
+                    .isAfterOrEqualTo(events.get(i - 1).getEndTime());
+        }
+    }
+}
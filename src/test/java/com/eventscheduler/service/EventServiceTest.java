@@ -1,21 +1,32 @@
 package com.eventscheduler.service;
 
+import com.eventscheduler.dto.ConflictingEventDto;
+import com.eventscheduler.dto.EventBatchResultDto;
 import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.dto.RecurrenceDto;
+import com.eventscheduler.dto.VersionedEventDto;
+import com.eventscheduler.exception.BadRequestException;
 import com.eventscheduler.exception.ConflictException;
 import com.eventscheduler.mapper.EventMapper;
 import com.eventscheduler.model.Event;
+import com.eventscheduler.model.RecurrenceFrequency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +50,23 @@ class EventServiceTest {
     @Mock
     private EventPersistenceService eventPersistenceService;
 
+    @Mock
+    private EventAdmissionLocks eventAdmissionLocks;
+
+    @Mock
+    private EventResourceLocks eventResourceLocks;
+
+    @Mock
+    private EventQueryCache eventQueryCache;
+
+    @Mock
+    private EventTimeline eventTimeline;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private EventMetrics eventMetrics = new EventMetrics(meterRegistry);
+
     @InjectMocks
     private EventService eventService;
 
@@ -66,7 +94,8 @@ class EventServiceTest {
     @Test
     void createEvent_Success() {
         // Arrange
-        when(eventConflictService.hasConflict(eventDto)).thenReturn(false);
+        when(eventConflictService.findIndexedConflict(eventDto)).thenReturn(Optional.empty());
+        when(eventConflictService.findStoredConflict(eventDto)).thenReturn(Optional.empty());
         when(eventMapper.toEntity(eventDto)).thenReturn(event);
         when(eventPersistenceService.saveEvent(event)).thenReturn(event);
         when(eventMapper.toEventDto(event)).thenReturn(eventDto);
@@ -79,7 +108,11 @@ class EventServiceTest {
         assertThat(createdEvent.getId()).isEqualTo(eventDto.getId());
         assertThat(createdEvent.getName()).isEqualTo(eventDto.getName());
         verify(eventValidator).validateStartAndEndTime(eventDto.getStartTime(), eventDto.getEndTime());
-        verify(eventConflictService).hasConflict(eventDto);
+        verify(eventAdmissionLocks).lockForTransaction(Event.DEFAULT_RESOURCE_ID, eventDto.getStartTime(),
+                eventDto.getEndTime());
+        verify(eventConflictService).findIndexedConflict(eventDto);
+        verify(eventResourceLocks).lock(List.of(Event.DEFAULT_RESOURCE_ID));
+        verify(eventConflictService).findStoredConflict(eventDto);
         verify(eventMapper).toEntity(eventDto);
         verify(eventPersistenceService).saveEvent(event);
         verify(eventMapper).toEventDto(event);
@@ -89,18 +122,103 @@ class EventServiceTest {
     @Test
     void createEvent_ConflictException() {
         // Arrange
-        when(eventConflictService.hasConflict(eventDto)).thenReturn(true);
+        when(eventConflictService.findIndexedConflict(eventDto))
+                .thenReturn(Optional.of(new ConflictingEventDto(7L, "Standup")));
 
         // Act & Assert
         assertThatThrownBy(() -> eventService.createEvent(eventDto))
                 .isInstanceOf(ConflictException.class)
-                .hasMessage("The event conflicts with an existing event.");
+                .hasMessage("The event conflicts with existing event 'Standup' (id 7).");
 
         verify(eventValidator).validateStartAndEndTime(eventDto.getStartTime(), eventDto.getEndTime());
-        verify(eventConflictService).hasConflict(eventDto);
+        verify(eventConflictService).findIndexedConflict(eventDto);
+        verify(eventResourceLocks, never()).lock(any());
         verify(eventMapper, never()).toEntity(any());
         verify(eventPersistenceService, never()).saveEvent(any());
         verify(eventMapper, never()).toEventDto(any());
+        assertThat(meterRegistry.get("events.conflicts").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("events.create").tag("outcome", "conflict").timer().count()).isEqualTo(1);
+    }
+
+    // Test for batch creation with created, conflicting and invalid items
+    @Test
+    void createEvents_PartialAcceptance() {
+        // Arrange
+        EventDto conflicting = EventDto.builder()
+                .name("Conflicting Event")
+                .startTime(eventDto.getStartTime().plusHours(1))
+                .endTime(eventDto.getEndTime().plusHours(1))
+                .build();
+        EventDto invalid = EventDto.builder()
+                .name("Invalid Event")
+                .startTime(eventDto.getEndTime())
+                .endTime(eventDto.getStartTime())
+                .build();
+        BitSet conflicts = new BitSet();
+        conflicts.set(1);
+
+        // Lenient, since the valid items are validated through the same method with other arguments
+        lenient().doThrow(new BadRequestException("Start time must be before end time."))
+                .when(eventValidator).validateEvent(invalid);
+        when(eventQueryService.findEventsInRange(Event.DEFAULT_RESOURCE_ID, eventDto.getStartTime(),
+                conflicting.getEndTime()))
+                .thenReturn(Collections.emptyList());
+        when(eventConflictService.findBatchConflicts(List.of(eventDto, conflicting), Collections.emptyList()))
+                .thenReturn(conflicts);
+        when(eventMapper.toEntity(eventDto)).thenReturn(event);
+        when(eventPersistenceService.saveEvents(List.of(event))).thenReturn(List.of(event));
+        when(eventMapper.toEventDto(event)).thenReturn(eventDto);
+
+        // Act
+        List<EventBatchResultDto> results = eventService.createEvents(List.of(eventDto, invalid, conflicting));
+
+        // Assert
+        assertThat(results).extracting(EventBatchResultDto::getStatus).containsExactly(
+                EventBatchResultDto.Status.CREATED,
+                EventBatchResultDto.Status.INVALID,
+                EventBatchResultDto.Status.CONFLICT);
+        assertThat(results).extracting(EventBatchResultDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(0).getEvent()).isEqualTo(eventDto);
+        assertThat(results.get(1).getMessage()).isEqualTo("Start time must be before end time.");
+        verify(eventAdmissionLocks).lockForTransaction(List.of(eventDto, conflicting));
+        verify(eventQueryService).findEventsInRange(Event.DEFAULT_RESOURCE_ID, eventDto.getStartTime(),
+                conflicting.getEndTime());
+        verify(eventMapper, never()).toEntity(conflicting);
+    }
+
+    // Test for a batch where nothing passes validation
+    @Test
+    void createEvents_AllInvalid() {
+        // Arrange
+        doThrow(new BadRequestException("Event name must not be blank"))
+                .when(eventValidator).validateEvent(eventDto);
+
+        // Act
+        List<EventBatchResultDto> results = eventService.createEvents(List.of(eventDto));
+
+        // Assert
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getStatus()).isEqualTo(EventBatchResultDto.Status.INVALID);
+        verify(eventQueryService, never()).findEventsInRange(any(), any(), any());
+        verify(eventPersistenceService, never()).saveEvents(any());
+    }
+
+    // Test for batch creation rejecting recurring items
+    @Test
+    void createEvents_RecurringItemInvalid() {
+        // Arrange
+        eventDto.setRecurrence(RecurrenceDto.builder()
+                .frequency(RecurrenceFrequency.DAILY)
+                .count(5)
+                .build());
+
+        // Act
+        List<EventBatchResultDto> results = eventService.createEvents(List.of(eventDto));
+
+        // Assert
+        assertThat(results.get(0).getStatus()).isEqualTo(EventBatchResultDto.Status.INVALID);
+        assertThat(results.get(0).getMessage()).isEqualTo("Recurring events must be created one at a time.");
+        verify(eventPersistenceService, never()).saveEvents(any());
     }
 
     // Test for fetching all events
@@ -130,24 +248,24 @@ class EventServiceTest {
         // Arrange
         LocalDateTime start = LocalDateTime.now();
         LocalDateTime end = LocalDateTime.now().plusDays(3);
-        List<Event> events = Collections.singletonList(event);
         List<EventDto> eventDtos = Collections.singletonList(eventDto);
 
         doNothing().when(eventValidator).validateStartAndEndTime(start, end);
 
-        when(eventQueryService.findEventsInRange(start, end)).thenReturn(events);
-        when(eventMapper.toEventDtoList(events)).thenReturn(eventDtos);
+        when(eventQueryCache.getInWindow(isNull(), eq(start), eq(end), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<EventDto>>>getArgument(3).get());
+        when(eventQueryService.findEventDtosInRange(null, start, end)).thenReturn(eventDtos);
 
         // Act
-        List<EventDto> result = eventService.getEvents(start, end);
+        List<EventDto> result = eventService.getEvents(null, start, end);
 
         // Assert
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         assertThat(result).containsExactly(eventDto);
         verify(eventValidator).validateStartAndEndTime(start, end);
-        verify(eventQueryService).findEventsInRange(start, end);
-        verify(eventMapper).toEventDtoList(events);
+        verify(eventQueryService).findEventDtosInRange(null, start, end);
+        verify(eventMapper, never()).toEventDtoList(any());
     }
 
     // Test for fetching events without time range
@@ -159,7 +277,7 @@ class EventServiceTest {
         when(eventMapper.toEventDtoList(Collections.singletonList(event))).thenReturn(eventDtos);
 
         // Act
-        List<EventDto> result = eventService.getEvents(null, null);
+        List<EventDto> result = eventService.getEvents(null, null, null);
 
         // Assert
         assertThat(result).isNotNull();
@@ -168,13 +286,14 @@ class EventServiceTest {
         verify(eventQueryService).getAllEvents();
         verify(eventMapper).toEventDtoList(Collections.singletonList(event));
         verify(eventValidator, never()).validateStartAndEndTime(any(), any());
-        verify(eventConflictService, never()).hasConflict(any());
+        verify(eventConflictService, never()).findConflict(any());
     }
 
     // Test for fetching an event by ID when it exists
     @Test
     void getEventById_Found() {
         // Arrange
+        loadThroughCache();
         when(eventQueryService.getEventById(1L)).thenReturn(Optional.of(event));
         when(eventMapper.toEventDto(event)).thenReturn(eventDto);
 
@@ -188,10 +307,26 @@ class EventServiceTest {
         verify(eventMapper).toEventDto(event);
     }
 
+    // Test for serving an event by ID from the cache
+    @Test
+    void getEventById_Cached() {
+        // Arrange
+        when(eventQueryCache.getById(eq(1L), any()))
+                .thenReturn(Optional.of(new VersionedEventDto(eventDto, LocalDateTime.now())));
+
+        // Act
+        Optional<EventDto> result = eventService.getEventById(1L);
+
+        // Assert
+        assertThat(result).contains(eventDto);
+        verify(eventQueryService, never()).getEventById(any());
+    }
+
     // Test for fetching an event by ID when it does not exist
     @Test
     void getEventById_NotFound() {
         // Arrange
+        loadThroughCache();
         when(eventQueryService.getEventById(1L)).thenReturn(Optional.empty());
 
         // Act
@@ -202,4 +337,9 @@ class EventServiceTest {
         verify(eventQueryService).getEventById(1L);
         verify(eventMapper, never()).toEventDto(any());
     }
-}
\ No newline at end of file
+
+    private void loadThroughCache() {
+        when(eventQueryCache.getById(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, Optional<VersionedEventDto>>>getArgument(1).apply(1L));
+    }
+}
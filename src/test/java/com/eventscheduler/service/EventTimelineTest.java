@@ -0,0 +1,195 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.mapper.EventMapper;
+import com.eventscheduler.model.Event;
+import com.eventscheduler.model.Recurrence;
+import com.eventscheduler.model.RecurrenceFrequency;
+import com.eventscheduler.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventTimelineTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 6, 3, 0, 0);
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventArchiver eventArchiver;
+
+    private EventTimeline eventTimeline;
+
+    @BeforeEach
+    void setUp() {
+        eventTimeline = new EventTimeline(eventRepository, eventArchiver, new EventMapper(),
+                new EventMetrics(new SimpleMeterRegistry()), true);
+        lenient().when(eventArchiver.archiveHorizon()).thenReturn(DAY.minusYears(1));
+    }
+
+    // Range bounds are inclusive, and a long event starting well before the range is still found
+    @Test
+    void findInRange_FindsOverlappingEvents() {
+        // Arrange
+        when(eventRepository.findAll()).thenReturn(List.of(
+                event(1L, "room-1", 8, 9), event(2L, "room-1", 10, 11), event(3L, "room-2", 0, 23),
+                event(4L, "room-1", 14, 15)));
+        eventTimeline.rebuild();
+
+        // Act
+        List<EventDto> result = eventTimeline.findInRange(null, DAY.withHour(9), DAY.withHour(12)).orElseThrow();
+
+        // Assert
+        assertThat(result).extracting(EventDto::getId).containsExactly(3L, 1L, 2L);
+    }
+
+    // A resource filter only returns events of that resource, and names come from the interned table
+    @Test
+    void findInRange_FiltersByResource() {
+        // Arrange
+        when(eventRepository.findAll()).thenReturn(List.of(
+                event(1L, "room-1", 8, 9), event(2L, "room-2", 8, 9)));
+        eventTimeline.rebuild();
+
+        // Act
+        List<EventDto> result = eventTimeline.findInRange("room-2", DAY, DAY.plusDays(1)).orElseThrow();
+        List<EventDto> unknown = eventTimeline.findInRange("room-3", DAY, DAY.plusDays(1)).orElseThrow();
+
+        // Assert
+        assertThat(result).containsExactly(new EventDto(2L, "Event 2", "room-2", DAY.withHour(8), DAY.withHour(9)));
+        assertThat(unknown).isEmpty();
+    }
+
+    // Committed events are merged in start order without duplicating events already loaded
+    @Test
+    void onEventsCreated_MergesInStartOrder() {
+        // Arrange
+        Event loaded = event(1L, "room-1", 12, 13);
+        when(eventRepository.findAll()).thenReturn(List.of(loaded));
+        eventTimeline.rebuild();
+
+        // Act
+        eventTimeline.onEventsCreated(new EventsCreatedEvent(List.of(
+                event(3L, "room-1", 15, 16), loaded, event(2L, "room-1", 9, 10))));
+
+        // Assert
+        assertThat(eventTimeline.findInRange(null, DAY, DAY.plusDays(1)).orElseThrow())
+                .extracting(EventDto::getId).containsExactly(2L, 1L, 3L);
+    }
+
+    // Recurring events are expanded within the range, archived events are dropped
+    @Test
+    void findInRange_ExpandsSeriesAndDropsArchived() {
+        // Arrange
+        Event series = event(1L, "room-1", 9, 10);
+        series.setRecurrence(Recurrence.builder().frequency(RecurrenceFrequency.DAILY).interval(1).count(30).build());
+        Event single = event(2L, "room-1", 11, 12);
+        when(eventRepository.findAll()).thenReturn(List.of(series, single));
+        eventTimeline.rebuild();
+
+        // Act
+        eventTimeline.onEventsArchived(new EventsArchivedEvent(List.of(single)));
+        List<EventDto> result = eventTimeline.findInRange(null, DAY.plusDays(5), DAY.plusDays(6)).orElseThrow();
+
+        // Assert
+        assertThat(result).extracting(EventDto::getStartTime)
+                .containsExactly(DAY.plusDays(5).withHour(9));
+        assertThat(eventTimeline.size()).isEqualTo(1);
+    }
+
+    // Times are kept to the microsecond, rounded like the timestamp columns round them
+    @Test
+    void onEventsCreated_KeepsFractionalSeconds() {
+        // Arrange
+        when(eventRepository.findAll()).thenReturn(List.of(event(1L, "room-1", 8, 9)));
+        eventTimeline.rebuild();
+        Event fractional = event(2L, "room-1", 10, 11);
+        fractional.setStartTime(fractional.getStartTime().plusNanos(123_456_000));
+        fractional.setEndTime(fractional.getEndTime().plusNanos(999_999_500));
+
+        // Act
+        eventTimeline.onEventsCreated(new EventsCreatedEvent(List.of(fractional)));
+
+        // Assert
+        assertThat(eventTimeline.findInRange(null, DAY.withHour(9).plusNanos(1), DAY.plusDays(1)).orElseThrow())
+                .containsExactly(new EventDto(2L, "Event 2", "room-1", DAY.withHour(10).plusNanos(123_456_000),
+                        DAY.withHour(11).plusSeconds(1)));
+    }
+
+    // A commit that cannot be merged leaves reads to the database until the scheduled rebuild
+    @Test
+    void onEventsCreated_MergeFailureSchedulesRebuild() {
+        // Arrange
+        Event stored = event(1L, "room-1", 8, 9);
+        when(eventRepository.findAll()).thenReturn(List.of(stored));
+        eventTimeline.rebuild();
+
+        // Act
+        eventTimeline.onEventsCreated(new EventsCreatedEvent(List.of(event(null, "room-1", 10, 11))));
+        boolean readyAfterFailure = eventTimeline.isReady();
+        eventTimeline.rebuildIfStale();
+
+        // Assert
+        assertThat(readyAfterFailure).isFalse();
+        assertThat(eventTimeline.findInRange(null, DAY, DAY.plusDays(1)).orElseThrow())
+                .extracting(EventDto::getId).containsExactly(1L);
+        verify(eventRepository, times(2)).findAll();
+    }
+
+    // Archiving releases the names and resources only the archived events used
+    @Test
+    void onEventsArchived_ReleasesUnusedNames() {
+        // Arrange
+        Event archived = event(1L, "room-1", 8, 9);
+        Event kept = event(2L, "room-2", 10, 11);
+        when(eventRepository.findAll()).thenReturn(List.of(archived, kept));
+        eventTimeline.rebuild();
+        long before = eventTimeline.footprintBytes();
+
+        // Act
+        eventTimeline.onEventsArchived(new EventsArchivedEvent(List.of(archived)));
+
+        // Assert
+        assertThat(eventTimeline.footprintBytes()).isLessThan(before);
+        assertThat(eventTimeline.findInRange(null, DAY, DAY.plusDays(1)).orElseThrow())
+                .containsExactly(new EventDto(2L, "Event 2", "room-2", DAY.withHour(10), DAY.withHour(11)));
+        assertThat(eventTimeline.findInRange("room-1", DAY, DAY.plusDays(1)).orElseThrow()).isEmpty();
+    }
+
+    // Ranges reaching before the archive horizon are left to the database
+    @Test
+    void findInRange_BeforeArchiveHorizon() {
+        // Arrange
+        when(eventRepository.findAll()).thenReturn(List.of());
+        eventTimeline.rebuild();
+
+        // Act
+        Optional<List<EventDto>> result = eventTimeline.findInRange(null, DAY.minusYears(2), DAY);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    private static Event event(Long id, String resourceId, int startHour, int endHour) {
+        return Event.builder()
+                .id(id)
+                .name("Event " + id)
+                .resourceId(resourceId)
+                .startTime(DAY.withHour(startHour))
+                .endTime(DAY.withHour(endHour))
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class EventVersionsTest {
+
+    private static final String RESOURCE = "versions-room";
+    private static final LocalDateTime DAY = LocalDateTime.of(2036, 2, 2, 0, 0);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventVersions eventVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A create moves the versions of its resource and of the table, as seen by any instance
+    // sharing the database, and leaves other resources alone
+    @Test
+    void createEvent_MovesVersionsForEveryInstance() {
+        // Arrange
+        eventService.createEvent(event(RESOURCE, 9));
+        eventService.createEvent(event("versions-hall", 9));
+        EventVersions otherInstance = new EventVersions(jdbcTemplate);
+        EventVersions.Version resourceBefore = eventVersions.current(RESOURCE);
+        EventVersions.Version tableBefore = eventVersions.current(null);
+        EventVersions.Version otherResourceBefore = eventVersions.current("versions-hall");
+
+        // Act
+        eventService.createEvent(event(RESOURCE, 11));
+
+        // Assert
+        assertThat(otherInstance.current(RESOURCE)).isEqualTo(eventVersions.current(RESOURCE));
+        assertThat(otherInstance.current(RESOURCE).etag()).isNotEqualTo(resourceBefore.etag());
+        assertThat(otherInstance.current(null).etag()).isNotEqualTo(tableBefore.etag());
+        assertThat(eventVersions.current("versions-hall")).isEqualTo(otherResourceBefore);
+    }
+
+    // A resource that never changed shares the table version, and gets a distinct ETag once it does
+    @Test
+    void current_UnchangedResourceFollowsTable() {
+        // Arrange
+        String resourceId = "versions-unused";
+        EventVersions.Version before = eventVersions.current(resourceId);
+        assertThat(before).isEqualTo(eventVersions.current(null));
+
+        // Act
+        eventService.createEvent(event(resourceId, 14));
+
+        // Assert
+        assertThat(eventVersions.current(resourceId).etag())
+                .isNotEqualTo(before.etag())
+                .isNotEqualTo(eventVersions.current(null).etag());
+    }
+
+    private static EventDto event(String resourceId, int hour) {
+        return EventDto.builder()
+                .name("Versioned " + hour)
+                .resourceId(resourceId)
+                .startTime(DAY.withHour(hour))
+                .endTime(DAY.withHour(hour + 1))
+                .build();
+    }
+}
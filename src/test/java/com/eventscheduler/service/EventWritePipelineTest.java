@@ -0,0 +1,168 @@
+package com.eventscheduler.service;
+
+import com.eventscheduler.dto.EventBatchResultDto;
+import com.eventscheduler.dto.EventDto;
+import com.eventscheduler.exception.ConflictException;
+import com.eventscheduler.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "event-scheduler.write-pipeline.enabled=true")
+class EventWritePipelineTest {
+
+    private static final String RESOURCE = "pipeline-room";
+    private static final LocalDateTime DAY = LocalDateTime.of(2033, 2, 14, 0, 0);
+
+    @Autowired
+    private EventWritePipeline eventWritePipeline;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventMetrics eventMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Concurrent creates are committed by the writer, each overlapping group admits one event
+    // and every queued event is counted in a batch
+    @Test
+    void createEvent_ConcurrentRequestsNeverDoubleBook() throws Exception {
+        // Arrange
+        double batchedBefore = meterRegistry.get("events.pipeline.batch.size").summary().totalAmount();
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            // Three requests per hour, each overlapping the others of its hour
+            LocalDateTime start = DAY.plusHours(i / 3).plusMinutes(10L * (i % 3));
+            attempts.add(() -> tryCreate(start, start.plusMinutes(30)));
+        }
+
+        // Act
+        int created = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                created += result.get() ? 1 : 0;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(created).isEqualTo(16);
+        assertThat(eventService.getEvents(RESOURCE, DAY, DAY.plusDays(1))).hasSize(16);
+        assertThat(meterRegistry.get("events.pipeline.batch.size").summary().totalAmount() - batchedBefore)
+                .isEqualTo(48);
+        assertThat(meterRegistry.get("events.pipeline.queue.depth").gauge().value()).isZero();
+    }
+
+    // Within a batch the first arrival wins, even when a later one starts earlier
+    @Test
+    void createEventsInOrder_FirstArrivalWins() {
+        // Arrange
+        LocalDateTime start = DAY.plusDays(1).withHour(10);
+        List<EventDto> arrivals = List.of(
+                event(start, start.plusHours(1)),
+                event(start.minusMinutes(30), start.plusMinutes(30)),
+                event(start.plusHours(2), start.plusHours(1)));
+
+        // Act
+        List<EventBatchResultDto> results = eventService.createEventsInOrder(arrivals);
+
+        // Assert
+        assertThat(results).extracting(EventBatchResultDto::getStatus).containsExactly(
+                EventBatchResultDto.Status.CREATED,
+                EventBatchResultDto.Status.CONFLICT,
+                EventBatchResultDto.Status.INVALID);
+        assertThat(eventService.getEvents(RESOURCE, start.minusHours(1), start.plusHours(1)))
+                .extracting(EventDto::getStartTime).containsExactly(start);
+    }
+
+    // Callers give up on a commit that does not come, and on a queue that stays full
+    @Test
+    void createEvent_TimesOutWhenWriterDoesNotKeepUp() {
+        // Arrange
+        EventWritePipeline stalled = pipeline(eventService, false);
+        LocalDateTime start = DAY.plusDays(2).withHour(9);
+
+        // Act & Assert
+        assertThatThrownBy(() -> stalled.createEvent(event(start, start.plusHours(1))))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("Timed out");
+        assertThatThrownBy(() -> stalled.createEvent(event(start.plusHours(2), start.plusHours(3))))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("full");
+    }
+
+    // A writer killed by an Error fails the caller it was committing for, and later callers are refused
+    @Test
+    void createEvent_WriterErrorFailsWaitingCallers() {
+        // Arrange
+        EventService failing = mock(EventService.class);
+        when(failing.createEventsInOrder(any())).thenThrow(new StackOverflowError());
+        EventWritePipeline broken = pipeline(failing, true);
+        LocalDateTime start = DAY.plusDays(3).withHour(9);
+
+        // Act & Assert
+        assertThatThrownBy(() -> broken.createEvent(event(start, start.plusHours(1))))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThatThrownBy(() -> broken.createEvent(event(start.plusHours(2), start.plusHours(3))))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    // Creates arriving after shutdown are refused instead of waiting for a writer that is gone
+    @Test
+    void createEvent_RefusedAfterShutdown() {
+        // Arrange
+        EventWritePipeline stopped = pipeline(eventService, true);
+        LocalDateTime start = DAY.plusDays(4).withHour(9);
+
+        // Act
+        stopped.shutdown();
+
+        // Assert
+        assertThatThrownBy(() -> stopped.createEvent(event(start, start.plusHours(1))))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(eventService.getEvents(RESOURCE, start, start.plusHours(1))).isEmpty();
+    }
+
+    /**
+     * A pipeline with a queue of one and short timeouts, whose writer only runs when enabled.
+     */
+    private EventWritePipeline pipeline(EventService service, boolean enabled) {
+        return new EventWritePipeline(service, eventMetrics, meterRegistry, enabled, 1, 16, 200, 200);
+    }
+
+    private boolean tryCreate(LocalDateTime start, LocalDateTime end) {
+        try {
+            eventWritePipeline.createEvent(event(start, end));
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+
+    private static EventDto event(LocalDateTime start, LocalDateTime end) {
+        return EventDto.builder()
+                .name("Pipelined " + start)
+                .resourceId(RESOURCE)
+                .startTime(start)
+                .endTime(end)
+                .build();
+    }
+}